@@ -0,0 +1,62 @@
+package com.example.benchmarks;
+
+import com.example.model.User;
+import com.example.security.PasswordHasher;
+import com.example.service.AuthenticationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full sign-in: cached user lookup plus PBKDF2 verification on the hashing
+ * pool. Every seeded user shares one stored hash, calibrated like production,
+ * so the numbers include the deliberate hashing cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AuthenticationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private AuthenticationService authenticationService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.seed(rows, PasswordHasher.getInstance().hash(BenchmarkDatabase.PASSWORD));
+        authenticationService = new AuthenticationService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.shutdown();
+    }
+
+    @Benchmark
+    public User authenticate() {
+        return authenticationService.authenticate(BenchmarkDatabase.randomLogin(rows), BenchmarkDatabase.PASSWORD);
+    }
+
+    @Benchmark
+    public User authenticateUnknownLogin() {
+        return authenticationService.authenticate("missing-" + BenchmarkDatabase.randomLogin(rows),
+                BenchmarkDatabase.PASSWORD);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.benchmarks;
+
+import com.example.util.DatabaseManager;
+import com.example.util.HibernateUtil;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Seeds the in-memory benchmark database with synthetic users through a plain
+ * JDBC batch. Every JMH fork is a new JVM with an empty database, so each
+ * benchmark seeds once in its trial setup.
+ */
+final class BenchmarkDatabase {
+    static final String PASSWORD = "benchmark-password";
+    private static final int BATCH_SIZE = 10_000;
+    private static final LocalDate FIRST_BIRTHDAY = LocalDate.of(1950, 1, 1);
+
+    private static int seededRows = -1;
+
+    private BenchmarkDatabase() {
+    }
+
+    static String login(int row) {
+        return String.format("user%07d", row);
+    }
+
+    static String randomLogin(int rows) {
+        return login(ThreadLocalRandom.current().nextInt(rows));
+    }
+
+    /**
+     * Replaces the users table with {@code rows} users, all with {@code storedPassword}.
+     */
+    static synchronized void seed(int rows, String storedPassword) throws SQLException {
+        if (seededRows == rows) {
+            return;
+        }
+
+        try (Connection connection = DatabaseManager.getInstance().getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DELETE FROM users");
+            }
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO users (login, password, email, first_name, last_name, birthday, role_id) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                for (int row = 0; row < rows; row++) {
+                    String login = login(row);
+                    ps.setString(1, login);
+                    ps.setString(2, storedPassword);
+                    ps.setString(3, login + "@example.com");
+                    ps.setString(4, "First" + (row % 1000));
+                    ps.setString(5, "Last" + (row % 5000));
+                    ps.setDate(6, Date.valueOf(FIRST_BIRTHDAY.plusDays(row % 20_000)));
+                    ps.setLong(7, row % 10 == 0 ? 1L : 2L);
+                    ps.addBatch();
+                    if ((row + 1) % BATCH_SIZE == 0) {
+                        ps.executeBatch();
+                        connection.commit();
+                    }
+                }
+                ps.executeBatch();
+            }
+            connection.commit();
+        }
+        seededRows = rows;
+    }
+
+    /**
+     * Closes the SessionFactory and the pool at the end of a Hibernate benchmark.
+     */
+    static void shutdown() {
+        HibernateUtil.closeSessionFactory();
+        DatabaseManager.shutdown();
+    }
+}
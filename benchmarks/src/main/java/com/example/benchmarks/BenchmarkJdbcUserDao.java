@@ -0,0 +1,85 @@
+package com.example.benchmarks;
+
+import com.example.dao.EntityRowMapper;
+import com.example.dao.GenericJdbcDao;
+import com.example.model.User;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * The application has no concrete {@link GenericJdbcDao} of its own, so this one
+ * maps the users table to exercise the generic JDBC CRUD paths.
+ */
+class BenchmarkJdbcUserDao extends GenericJdbcDao<User> {
+
+    @Override
+    protected String getTableName() {
+        return "users";
+    }
+
+    @Override
+    protected String getInsertQuery() {
+        return "INSERT INTO users (login, password, email, first_name, last_name, birthday, role_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    }
+
+    @Override
+    protected String getUpdateQuery() {
+        return "UPDATE users SET login = ?, password = ?, email = ?, first_name = ?, last_name = ?, " +
+                "birthday = ?, role_id = ? WHERE id = ?";
+    }
+
+    @Override
+    protected String getDeleteQuery() {
+        return "DELETE FROM users WHERE id = ?";
+    }
+
+    @Override
+    protected String getFindAllQuery() {
+        return "SELECT u.id, u.login, u.password, u.email, u.first_name, u.last_name, u.birthday, " +
+                "u.role_id, r.name AS role_name FROM users u LEFT JOIN roles r ON r.id = u.role_id";
+    }
+
+    @Override
+    protected String getFindByIdQuery() {
+        return getFindAllQuery() + " WHERE u.id = ?";
+    }
+
+    @Override
+    protected void setInsertParameters(PreparedStatement ps, User user) throws SQLException {
+        ps.setString(1, user.getLogin());
+        ps.setString(2, user.getPassword());
+        ps.setString(3, user.getEmail());
+        ps.setString(4, user.getFirstName());
+        ps.setString(5, user.getLastName());
+        ps.setObject(6, user.getBirthday());
+        if (user.getRole() != null && user.getRole().getId() != null) {
+            ps.setLong(7, user.getRole().getId());
+        } else {
+            ps.setNull(7, Types.BIGINT);
+        }
+    }
+
+    @Override
+    protected void setUpdateParameters(PreparedStatement ps, User user) throws SQLException {
+        setInsertParameters(ps, user);
+        ps.setLong(8, user.getId());
+    }
+
+    @Override
+    protected Long getEntityId(User user) {
+        return user.getId();
+    }
+
+    @Override
+    protected void setEntityId(User user, Long id) {
+        user.setId(id);
+    }
+
+    @Override
+    protected EntityRowMapper<User> getRowMapper() {
+        return EntityRowMapper.forEntity(User.class);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.benchmarks;
+
+import javax.servlet.jsp.JspWriter;
+
+/**
+ * Discards everything written to it and only counts characters, so rendering
+ * benchmarks measure the tag rather than buffering or I/O.
+ */
+final class CountingJspWriter extends JspWriter {
+    private long written;
+
+    CountingJspWriter() {
+        super(0, false);
+    }
+
+    /**
+     * Returns the characters written since the last reset and starts over.
+     */
+    long reset() {
+        long count = written;
+        written = 0;
+        return count;
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+        written += length;
+    }
+
+    @Override
+    public void write(String text) {
+        written += text.length();
+    }
+
+    @Override
+    public void write(String text, int offset, int length) {
+        written += length;
+    }
+
+    @Override
+    public void write(int c) {
+        written++;
+    }
+
+    @Override
+    public void newLine() {
+        written++;
+    }
+
+    @Override
+    public void print(boolean b) {
+        write(String.valueOf(b));
+    }
+
+    @Override
+    public void print(char c) {
+        written++;
+    }
+
+    @Override
+    public void print(int i) {
+        write(String.valueOf(i));
+    }
+
+    @Override
+    public void print(long l) {
+        write(String.valueOf(l));
+    }
+
+    @Override
+    public void print(float f) {
+        write(String.valueOf(f));
+    }
+
+    @Override
+    public void print(double d) {
+        write(String.valueOf(d));
+    }
+
+    @Override
+    public void print(char[] s) {
+        written += s.length;
+    }
+
+    @Override
+    public void print(String s) {
+        write(String.valueOf(s));
+    }
+
+    @Override
+    public void print(Object obj) {
+        write(String.valueOf(obj));
+    }
+
+    @Override
+    public void println() {
+        newLine();
+    }
+
+    @Override
+    public void println(boolean x) {
+        print(x);
+        newLine();
+    }
+
+    @Override
+    public void println(char x) {
+        print(x);
+        newLine();
+    }
+
+    @Override
+    public void println(int x) {
+        print(x);
+        newLine();
+    }
+
+    @Override
+    public void println(long x) {
+        print(x);
+        newLine();
+    }
+
+    @Override
+    public void println(float x) {
+        print(x);
+        newLine();
+    }
+
+    @Override
+    public void println(double x) {
+        print(x);
+        newLine();
+    }
+
+    @Override
+    public void println(char[] x) {
+        print(x);
+        newLine();
+    }
+
+    @Override
+    public void println(String x) {
+        print(x);
+        newLine();
+    }
+
+    @Override
+    public void println(Object x) {
+        print(x);
+        newLine();
+    }
+
+    @Override
+    public void clear() {
+        written = 0;
+    }
+
+    @Override
+    public void clearBuffer() {
+        written = 0;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public int getRemaining() {
+        return 0;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.benchmarks;
+
+import javax.el.ELContext;
+import javax.servlet.Servlet;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpSession;
+import javax.servlet.jsp.JspWriter;
+import javax.servlet.jsp.PageContext;
+import javax.servlet.jsp.el.ExpressionEvaluator;
+import javax.servlet.jsp.el.VariableResolver;
+import java.util.Collections;
+import java.util.Enumeration;
+
+/**
+ * The least a tag needs to render outside a container: {@link #getOut()} hands
+ * out a {@link CountingJspWriter}. Attributes are not supported.
+ */
+final class CountingPageContext extends PageContext {
+    private final CountingJspWriter writer = new CountingJspWriter();
+
+    CountingJspWriter getWriter() {
+        return writer;
+    }
+
+    @Override
+    public JspWriter getOut() {
+        return writer;
+    }
+
+    @Override
+    public void initialize(Servlet servlet, ServletRequest request, ServletResponse response, String errorPageURL,
+                           boolean needsSession, int bufferSize, boolean autoFlush) {
+        throw unsupported();
+    }
+
+    @Override
+    public void release() {
+    }
+
+    @Override
+    public HttpSession getSession() {
+        return null;
+    }
+
+    @Override
+    public Object getPage() {
+        return null;
+    }
+
+    @Override
+    public ServletRequest getRequest() {
+        return null;
+    }
+
+    @Override
+    public ServletResponse getResponse() {
+        return null;
+    }
+
+    @Override
+    public Exception getException() {
+        return null;
+    }
+
+    @Override
+    public ServletConfig getServletConfig() {
+        return null;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return null;
+    }
+
+    @Override
+    public void forward(String relativeUrlPath) {
+        throw unsupported();
+    }
+
+    @Override
+    public void include(String relativeUrlPath) {
+        throw unsupported();
+    }
+
+    @Override
+    public void include(String relativeUrlPath, boolean flush) {
+        throw unsupported();
+    }
+
+    @Override
+    public void handlePageException(Exception e) {
+        throw unsupported();
+    }
+
+    @Override
+    public void handlePageException(Throwable t) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        throw unsupported();
+    }
+
+    @Override
+    public void setAttribute(String name, Object value, int scope) {
+        throw unsupported();
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return null;
+    }
+
+    @Override
+    public Object getAttribute(String name, int scope) {
+        return null;
+    }
+
+    @Override
+    public Object findAttribute(String name) {
+        return null;
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+    }
+
+    @Override
+    public void removeAttribute(String name, int scope) {
+    }
+
+    @Override
+    public int getAttributesScope(String name) {
+        return 0;
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNamesInScope(int scope) {
+        return Collections.emptyEnumeration();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public ExpressionEvaluator getExpressionEvaluator() {
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public VariableResolver getVariableResolver() {
+        return null;
+    }
+
+    @Override
+    public ELContext getELContext() {
+        return null;
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Not available outside a container");
+    }
+}
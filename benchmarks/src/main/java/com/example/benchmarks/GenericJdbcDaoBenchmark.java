@@ -0,0 +1,86 @@
+package com.example.benchmarks;
+
+import com.example.model.Role;
+import com.example.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CRUD through {@link com.example.dao.GenericJdbcDao}: cached prepared statements
+ * and the annotation-driven row mapper. Ids are seeded 1..rows, so a random id
+ * always hits an existing row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GenericJdbcDaoBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private BenchmarkJdbcUserDao dao;
+    private Role userRole;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.seed(rows, BenchmarkDatabase.PASSWORD);
+        dao = new BenchmarkJdbcUserDao();
+        userRole = new Role("USER");
+        userRole.setId(2L);
+    }
+
+    @Benchmark
+    public User findById() {
+        return dao.findById(randomId());
+    }
+
+    @Benchmark
+    public User update() {
+        User user = dao.findById(randomId());
+        user.setFirstName("Updated");
+        dao.update(user);
+        return user;
+    }
+
+    /**
+     * Inserts and deletes one row, so the table keeps its seeded size.
+     */
+    @Benchmark
+    public User createAndRemove() {
+        String login = "bench" + ThreadLocalRandom.current().nextLong(Long.MAX_VALUE);
+        User user = new User(login, BenchmarkDatabase.PASSWORD, login + "@example.com",
+                "Bench", "User", LocalDate.of(1990, 1, 1), userRole);
+        dao.create(user);
+        dao.remove(user);
+        return user;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<User> findAll() {
+        return dao.findAll();
+    }
+
+    private long randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(rows);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.benchmarks;
+
+import com.example.dao.HibernateUserDao;
+import com.example.dao.UserDao;
+import com.example.model.UserSummary;
+import com.example.tag.UserListTag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.servlet.jsp.JspException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the admin user table into a writer that only counts characters:
+ * {@code renderList} from summaries already in memory, {@code renderStream}
+ * pulling them from the database through the tag's row source.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserListTagBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private List<UserSummary> summaries;
+    private UserDao userDao;
+    private CountingPageContext pageContext;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.seed(rows, BenchmarkDatabase.PASSWORD);
+        userDao = new HibernateUserDao();
+        pageContext = new CountingPageContext();
+
+        summaries = new ArrayList<>(rows);
+        LocalDate birthday = LocalDate.of(1950, 1, 1);
+        for (int row = 0; row < rows; row++) {
+            summaries.add(new UserSummary((long) row + 1, BenchmarkDatabase.login(row), "First" + (row % 1000),
+                    "Last" + (row % 5000), birthday.plusDays(row % 20_000), row % 10 == 0 ? "ADMIN" : "USER"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.shutdown();
+    }
+
+    @Benchmark
+    public long renderList() throws JspException {
+        UserListTag tag = newTag();
+        tag.setUsers(summaries);
+        tag.doStartTag();
+        return pageContext.getWriter().reset();
+    }
+
+    @Benchmark
+    public long renderStream() throws JspException {
+        UserListTag tag = newTag();
+        tag.setSource(userDao::forEachSummary);
+        tag.doStartTag();
+        return pageContext.getWriter().reset();
+    }
+
+    private UserListTag newTag() {
+        UserListTag tag = new UserListTag();
+        tag.setPageContext(pageContext);
+        tag.setContextPath("");
+        return tag;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.benchmarks;
+
+import com.example.model.Role;
+import com.example.model.User;
+import com.example.validator.UserValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Field validation for a new user. It never reads the database, so unlike the
+ * other benchmarks it has no table size parameter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserValidatorBenchmark {
+
+    private UserValidator validator;
+    private User validUser;
+    private User invalidUser;
+
+    @Setup
+    public void setUp() {
+        validator = new UserValidator();
+        Role role = new Role("USER");
+        role.setId(2L);
+        validUser = new User("user0000001", BenchmarkDatabase.PASSWORD, "user0000001@example.com",
+                "First", "Last", LocalDate.of(1990, 1, 1), role);
+        invalidUser = new User("u", "", "not-an-email", "", "Last", LocalDate.now().plusDays(1), null);
+    }
+
+    @Benchmark
+    public List<String> validateForCreate() {
+        return validator.validateForCreate(validUser);
+    }
+
+    @Benchmark
+    public List<String> validateForCreateWithErrors() {
+        return validator.validateForCreate(invalidUser);
+    }
+}
@@ -0,0 +1,30 @@
+-- The application schema without the full-text index: its triggers would dominate
+-- seeding a million rows, and no benchmark here searches.
+CREATE TABLE IF NOT EXISTS roles (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE
+    );
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    login VARCHAR(50) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    first_name VARCHAR(50),
+    last_name VARCHAR(50),
+    birthday DATE,
+    role_id BIGINT,
+    FOREIGN KEY (role_id) REFERENCES roles(id)
+    );
+
+MERGE INTO roles (id, name) VALUES (1, 'ADMIN');
+MERGE INTO roles (id, name) VALUES (2, 'USER');
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS login_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(login));
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_lower VARCHAR(100) GENERATED ALWAYS AS (LOWER(email));
+ALTER TABLE users ADD COLUMN IF NOT EXISTS first_name_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(first_name));
+ALTER TABLE users ADD COLUMN IF NOT EXISTS last_name_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(last_name));
+CREATE INDEX IF NOT EXISTS idx_users_login_lower ON users(login_lower);
+CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users(email_lower);
+CREATE INDEX IF NOT EXISTS idx_users_first_name_lower ON users(first_name_lower);
+CREATE INDEX IF NOT EXISTS idx_users_last_name_lower ON users(last_name_lower);
@@ -0,0 +1,4 @@
+package com.example.benchmarks.jmh_generated;
+public class AuthenticationBenchmark_jmhType extends AuthenticationBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.example.benchmarks.jmh_generated;
+public class GenericJdbcDaoBenchmark_jmhType extends GenericJdbcDaoBenchmark_jmhType_B3 {
+}
+
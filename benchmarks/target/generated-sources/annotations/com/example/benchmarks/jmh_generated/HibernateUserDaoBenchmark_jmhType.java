@@ -0,0 +1,4 @@
+package com.example.benchmarks.jmh_generated;
+public class HibernateUserDaoBenchmark_jmhType extends HibernateUserDaoBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.example.benchmarks.jmh_generated;
+public class UserListTagBenchmark_jmhType extends UserListTagBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.example.benchmarks.jmh_generated;
+public class UserValidatorBenchmark_jmhType extends UserValidatorBenchmark_jmhType_B3 {
+}
+
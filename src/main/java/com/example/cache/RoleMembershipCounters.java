@@ -0,0 +1,104 @@
+package com.example.cache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live number of users per role id, kept in step by the user DAO after each
+ * committed write and periodically reset from the database.
+ * <p>
+ * Changes made while a reconciliation query runs are recorded and replayed on
+ * top of its result, so a reconciliation never drops them. A write that commits
+ * while the query runs may be counted twice; the next reconciliation fixes it.
+ */
+public class RoleMembershipCounters {
+    private static final RoleMembershipCounters instance = new RoleMembershipCounters();
+
+    private final Map<Long, AtomicLong> counts = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private volatile Map<Long, Long> pendingDeltas;
+
+    protected RoleMembershipCounters() {
+    }
+
+    public static RoleMembershipCounters getInstance() {
+        return instance;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Starts recording changes; call before running the reconciliation query.
+     */
+    public synchronized void beginReconcile() {
+        pendingDeltas = new HashMap<>();
+    }
+
+    /**
+     * Replaces the counts with {@code databaseCounts} plus every change recorded
+     * since {@link #beginReconcile()}.
+     */
+    public synchronized void finishReconcile(Map<Long, Long> databaseCounts) {
+        Map<Long, Long> deltas = pendingDeltas != null ? pendingDeltas : Collections.emptyMap();
+        pendingDeltas = null;
+
+        counts.keySet().retainAll(databaseCounts.keySet());
+        databaseCounts.forEach((roleId, count) ->
+                counter(roleId).set(count + deltas.getOrDefault(roleId, 0L)));
+        loaded = true;
+    }
+
+    public synchronized void abortReconcile() {
+        pendingDeltas = null;
+    }
+
+    public void increment(Long roleId) {
+        add(roleId, 1);
+    }
+
+    public void decrement(Long roleId) {
+        add(roleId, -1);
+    }
+
+    public void move(Long fromRoleId, Long toRoleId) {
+        if (fromRoleId != null && fromRoleId.equals(toRoleId)) {
+            return;
+        }
+        decrement(fromRoleId);
+        increment(toRoleId);
+    }
+
+    public long get(Long roleId) {
+        AtomicLong count = counts.get(roleId);
+        return count != null ? count.get() : 0L;
+    }
+
+    public Map<Long, Long> snapshot() {
+        Map<Long, Long> snapshot = new HashMap<>();
+        counts.forEach((roleId, count) -> snapshot.put(roleId, count.get()));
+        return snapshot;
+    }
+
+    private void add(Long roleId, long delta) {
+        if (roleId == null) {
+            return;
+        }
+        counter(roleId).addAndGet(delta);
+        if (pendingDeltas != null) {
+            synchronized (this) {
+                if (pendingDeltas != null) {
+                    pendingDeltas.merge(roleId, delta, Long::sum);
+                }
+            }
+        }
+    }
+
+    private AtomicLong counter(Long roleId) {
+        return counts.computeIfAbsent(roleId, id -> new AtomicLong());
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.cache;
+
+import com.example.model.Role;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-process copy of the roles table. Readers work on an immutable snapshot;
+ * writers build a new snapshot and swap it in atomically, so lookups never lock
+ * and never reach the database once the registry is loaded.
+ * <p>
+ * Cached roles are detached copies holding only id and name; treat them as read-only.
+ */
+public class RoleRegistry {
+    private static final RoleRegistry instance = new RoleRegistry();
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    protected RoleRegistry() {
+    }
+
+    public static RoleRegistry getInstance() {
+        return instance;
+    }
+
+    public boolean isLoaded() {
+        return snapshot.get() != null;
+    }
+
+    public void load(Collection<Role> roles) {
+        snapshot.set(new Snapshot(copyAll(roles)));
+    }
+
+    public void loadIfAbsent(Collection<Role> roles) {
+        snapshot.compareAndSet(null, new Snapshot(copyAll(roles)));
+    }
+
+    public void clear() {
+        snapshot.set(null);
+    }
+
+    public Role findById(Long id) {
+        return id != null ? current().byId.get(id) : null;
+    }
+
+    public Role findByName(String name) {
+        return name != null ? current().byName.get(name) : null;
+    }
+
+    public List<Role> findAll() {
+        return current().ordered;
+    }
+
+    public void put(Role role) {
+        Role copy = copy(role);
+        swap(roles -> {
+            roles.removeIf(existing -> existing.getId().equals(copy.getId()));
+            roles.add(copy);
+            return roles;
+        });
+    }
+
+    public void remove(Role role) {
+        swap(roles -> {
+            roles.removeIf(existing -> existing.getId().equals(role.getId()));
+            return roles;
+        });
+    }
+
+    private void swap(UnaryOperator<List<Role>> change) {
+        Snapshot current;
+        Snapshot updated;
+        do {
+            current = snapshot.get();
+            if (current == null) {
+                // not loaded yet; the first load will read the change from the database
+                return;
+            }
+            updated = new Snapshot(change.apply(new ArrayList<>(current.ordered)));
+        } while (!snapshot.compareAndSet(current, updated));
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            throw new IllegalStateException("Role registry is not loaded");
+        }
+        return current;
+    }
+
+    private static List<Role> copyAll(Collection<Role> roles) {
+        List<Role> copies = new ArrayList<>(roles.size());
+        for (Role role : roles) {
+            copies.add(copy(role));
+        }
+        return copies;
+    }
+
+    private static Role copy(Role role) {
+        Role copy = new Role(role.getName());
+        copy.setId(role.getId());
+        return copy;
+    }
+
+    private static final class Snapshot {
+        private final Map<Long, Role> byId;
+        private final Map<String, Role> byName;
+        private final List<Role> ordered;
+
+        private Snapshot(List<Role> roles) {
+            Map<Long, Role> ids = new HashMap<>();
+            Map<String, Role> names = new HashMap<>();
+            for (Role role : roles) {
+                ids.put(role.getId(), role);
+                names.put(role.getName(), role);
+            }
+            List<Role> sorted = new ArrayList<>(roles);
+            sorted.sort(Comparator.comparing(Role::getName));
+
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byName = Collections.unmodifiableMap(names);
+            this.ordered = Collections.unmodifiableList(sorted);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.cache;
+
+import com.example.model.Role;
+import com.example.model.User;
+import com.example.util.DatabaseManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of users indexed by id, login and email, with a TTL on every
+ * entry and short-lived negative entries for logins and emails that do not exist.
+ * <p>
+ * Loads run outside the lock. A load that overlaps an invalidation is not stored,
+ * so a slow reader can never put back a row that a writer just changed.
+ * <p>
+ * It sits in front of Hibernate's second-level and natural-id caches rather than
+ * replacing them. Those cover id and login hits and the entity loads inside
+ * writes, but not unknown logins, which go to the database on every failed
+ * login, or email lookups, whose cached query results are dropped by every
+ * write to {@code users}. A hit here also skips the session entirely.
+ * <p>
+ * Every user, and the role it points to, is copied on the way in and out, so no
+ * caller can change what the cache holds.
+ */
+public class UserCache {
+    private static UserCache instance;
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    private final LinkedHashMap<Long, Entry> byId;
+    private final Map<String, Long> byLogin = new HashMap<>();
+    private final Map<String, Long> byEmail = new HashMap<>();
+    private final LinkedHashMap<String, Long> missingLogins;
+    private final LinkedHashMap<String, Long> missingEmails;
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public UserCache(int maxSize, long ttlSeconds, long negativeTtlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() <= UserCache.this.maxSize) {
+                    return false;
+                }
+                evictions.increment();
+                unindex(eldest.getValue().user);
+                return true;
+            }
+        };
+        this.missingLogins = boundedNegativeMap();
+        this.missingEmails = boundedNegativeMap();
+    }
+
+    public static synchronized UserCache getInstance() {
+        if (instance == null) {
+            instance = new UserCache(
+                    DatabaseManager.getIntProperty("cache.user.maxSize", 10000),
+                    DatabaseManager.getIntProperty("cache.user.ttlSeconds", 300),
+                    DatabaseManager.getIntProperty("cache.user.negativeTtlSeconds", 30));
+        }
+        return instance;
+    }
+
+    public User getById(Long id, Supplier<User> loader) {
+        if (id == null) {
+            return null;
+        }
+        long loadGeneration;
+        synchronized (this) {
+            User cached = live(id);
+            if (cached != null) {
+                hits.increment();
+                return copy(cached);
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        User loaded = loader.get();
+        store(loaded, null, null, loadGeneration);
+        return copy(loaded);
+    }
+
+    public User getByLogin(String login, Supplier<User> loader) {
+        return getByKey(login, byLogin, missingLogins, loader, true);
+    }
+
+    public User getByEmail(String email, Supplier<User> loader) {
+        return getByKey(email, byEmail, missingEmails, loader, false);
+    }
+
+    public synchronized void invalidate(User user) {
+        if (user == null) {
+            return;
+        }
+        generation++;
+        invalidations.increment();
+        if (user.getId() != null) {
+            Entry entry = byId.remove(user.getId());
+            if (entry != null) {
+                unindex(entry.user);
+            }
+        }
+        removeKey(byLogin, user.getLogin());
+        removeKey(byEmail, user.getEmail());
+        removeKey(missingLogins, user.getLogin());
+        removeKey(missingEmails, user.getEmail());
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations.increment();
+        byId.clear();
+        byLogin.clear();
+        byEmail.clear();
+        missingLogins.clear();
+        missingEmails.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getNegativeHits() {
+        return negativeHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    public double getHitRatio() {
+        long served = hits.sum() + negativeHits.sum();
+        long total = served + misses.sum();
+        return total == 0 ? 0.0 : (double) served / total;
+    }
+
+    public synchronized int getSize() {
+        return byId.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private User getByKey(String key, Map<String, Long> index, LinkedHashMap<String, Long> missing,
+                          Supplier<User> loader, boolean loginKey) {
+        if (key == null) {
+            return null;
+        }
+        long loadGeneration;
+        synchronized (this) {
+            Long id = index.get(key);
+            User cached = id != null ? live(id) : null;
+            if (cached != null) {
+                hits.increment();
+                return copy(cached);
+            }
+            Long missingUntil = missing.get(key);
+            if (missingUntil != null) {
+                if (missingUntil - System.nanoTime() > 0) {
+                    negativeHits.increment();
+                    return null;
+                }
+                missing.remove(key);
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        User loaded = loader.get();
+        store(loaded, loginKey ? key : null, loginKey ? null : key, loadGeneration);
+        return copy(loaded);
+    }
+
+    private synchronized void store(User user, String missingLogin, String missingEmail, long loadGeneration) {
+        if (loadGeneration != generation) {
+            return;
+        }
+        if (user == null) {
+            long until = System.nanoTime() + negativeTtlNanos;
+            if (missingLogin != null) {
+                missingLogins.put(missingLogin, until);
+            }
+            if (missingEmail != null) {
+                missingEmails.put(missingEmail, until);
+            }
+            return;
+        }
+        if (user.getId() == null) {
+            return;
+        }
+        Entry previous = byId.put(user.getId(), new Entry(copy(user), System.nanoTime() + ttlNanos));
+        if (previous != null) {
+            unindex(previous.user);
+        }
+        if (user.getLogin() != null) {
+            byLogin.put(user.getLogin(), user.getId());
+        }
+        if (user.getEmail() != null) {
+            byEmail.put(user.getEmail(), user.getId());
+        }
+    }
+
+    private User live(Long id) {
+        Entry entry = byId.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt - System.nanoTime() <= 0) {
+            byId.remove(id);
+            unindex(entry.user);
+            return null;
+        }
+        return entry.user;
+    }
+
+    private void unindex(User user) {
+        removeIfMapped(byLogin, user.getLogin(), user.getId());
+        removeIfMapped(byEmail, user.getEmail(), user.getId());
+    }
+
+    private static void removeIfMapped(Map<String, Long> index, String key, Long id) {
+        if (key != null && id != null && id.equals(index.get(key))) {
+            index.remove(key);
+        }
+    }
+
+    private static void removeKey(Map<String, Long> map, String key) {
+        if (key != null) {
+            map.remove(key);
+        }
+    }
+
+    private LinkedHashMap<String, Long> boundedNegativeMap() {
+        return new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                // expired misses age out as new ones arrive, so the map never grows past maxSize
+                return size() > UserCache.this.maxSize || eldest.getValue() - System.nanoTime() <= 0;
+            }
+        };
+    }
+
+    private static User copy(User user) {
+        if (user == null) {
+            return null;
+        }
+        User copy = new User(user.getLogin(), user.getPassword(), user.getEmail(),
+                user.getFirstName(), user.getLastName(), user.getBirthday(), copy(user.getRole()));
+        copy.setId(user.getId());
+        return copy;
+    }
+
+    private static Role copy(Role role) {
+        if (role == null) {
+            return null;
+        }
+        Role copy = new Role(role.getName());
+        copy.setId(role.getId());
+        return copy;
+    }
+
+    private static final class Entry {
+        private final User user;
+        private final long expiresAt;
+
+        private Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.controller;
 
+import com.example.exceptions.ServiceBusyException;
 import com.example.model.User;
 import com.example.service.AuthenticationService;
 import com.example.util.SessionUtils;
@@ -53,7 +54,7 @@ public class AuthController extends HttpServlet {
             User user = authService.authenticate(login, password);
 
             if (user != null) {
-                SessionUtils.setCurrentUser(request, user);
+                SessionUtils.setCurrentUser(request, response, user);
                 logger.info("User logged in: {}", login);
                 redirectToHomePage(request, response);
             } else {
@@ -61,6 +62,12 @@ public class AuthController extends HttpServlet {
                 request.setAttribute("login", login);
                 request.getRequestDispatcher("/WEB-INF/jsp/login.jsp").forward(request, response);
             }
+        } catch (ServiceBusyException e) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            request.setAttribute("error", "Too many sign-in attempts right now, please try again in a moment");
+            request.setAttribute("login", login);
+            request.getRequestDispatcher("/WEB-INF/jsp/login.jsp").forward(request, response);
         } catch (Exception e) {
             logger.error("Login error", e);
             request.setAttribute("error", "An error occurred during login");
@@ -70,7 +77,7 @@ public class AuthController extends HttpServlet {
 
     private void handleLogout(HttpServletRequest request, HttpServletResponse response)
             throws IOException {
-        SessionUtils.logout(request);
+        SessionUtils.logout(request, response);
         response.sendRedirect(request.getContextPath() + "/login");
     }
 
@@ -29,19 +29,11 @@ public class HomeController extends HttpServlet {
             return;
         }
 
-        if (!SessionUtils.isLoggedIn(request)) {
-            response.sendRedirect(request.getContextPath() + "/login");
-            return;
-        }
-
+        // SecurityFilter has already checked /user/* and /admin/* against the route table
         if ("/user/home".equals(path)) {
             request.getRequestDispatcher("/WEB-INF/jsp/user-home.jsp").forward(request, response);
         } else if ("/admin/home".equals(path)) {
-            if (SessionUtils.isAdmin(request)) {
-                response.sendRedirect(request.getContextPath() + "/admin/users");
-            } else {
-                response.sendError(HttpServletResponse.SC_FORBIDDEN, "Access denied");
-            }
+            response.sendRedirect(request.getContextPath() + "/admin/users");
         }
     }
 }
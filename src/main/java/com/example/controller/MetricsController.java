@@ -0,0 +1,31 @@
+package com.example.controller;
+
+import com.example.metrics.PrometheusExporter;
+
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Application metrics for Prometheus; admin only, like the rest of /admin.
+ */
+@WebServlet(name = "MetricsController", urlPatterns = {"/admin/metrics"})
+public class MetricsController extends HttpServlet {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4";
+    private final PrometheusExporter exporter = new PrometheusExporter();
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(CONTENT_TYPE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-store");
+
+        Writer writer = response.getWriter();
+        exporter.write(writer);
+        writer.flush();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.controller;
+
+import com.example.util.ConnectionPoolMonitor;
+import com.example.util.DatabaseManager;
+import com.example.util.Json;
+import org.apache.commons.dbcp2.BasicDataSource;
+
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Connection pool state as JSON: pool gauges, borrow wait percentiles and, with
+ * leak detection on, every connection held past the threshold with its borrow stack.
+ */
+@WebServlet(name = "PoolController", urlPatterns = {"/admin/pool"})
+public class PoolController extends HttpServlet {
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-store");
+
+        BasicDataSource dataSource = DatabaseManager.getDataSource();
+        ConnectionPoolMonitor monitor = ConnectionPoolMonitor.getInstance();
+        long[] wait = monitor.getBorrowWait().percentiles(QUANTILES);
+
+        PrintWriter out = response.getWriter();
+        out.print("{\"active\":" + dataSource.getNumActive());
+        out.print(",\"idle\":" + dataSource.getNumIdle());
+        out.print(",\"maxTotal\":" + dataSource.getMaxTotal());
+        out.print(",\"maxWaitMillis\":" + dataSource.getMaxWaitDuration().toMillis());
+        out.print(",\"waiting\":" + monitor.getWaiting());
+        out.print(",\"borrows\":" + monitor.getBorrowWait().getCount());
+        out.print(",\"borrowFailures\":" + monitor.getBorrowFailures());
+        out.print(",\"borrowWaitMicros\":{\"p50\":" + wait[0] + ",\"p99\":" + wait[1] + ",\"p999\":" + wait[2] + "}");
+        out.print(",\"statements\":{\"hits\":" + monitor.getStatementHits() + ",\"misses\":" + monitor.getStatementMisses()
+                + ",\"evictions\":" + monitor.getStatementEvictions() + "}");
+        out.print(",\"leakDetectionMillis\":" + monitor.getLeakThresholdMillis());
+        out.print(",\"tracked\":" + monitor.getTrackedConnections());
+        out.print(",\"leaks\":[");
+        boolean first = true;
+        for (ConnectionPoolMonitor.Lease lease : monitor.getLeaks()) {
+            out.print(first ? "" : ",");
+            first = false;
+            out.print("{\"thread\":" + Json.quote(lease.getThread()) + ",\"heldMillis\":" + lease.heldMillis() + ",\"stack\":[");
+            StackTraceElement[] stack = lease.getBorrowStack();
+            for (int i = 0; i < stack.length; i++) {
+                out.print((i > 0 ? "," : "") + Json.quote(stack[i].toString()));
+            }
+            out.print("]}");
+        }
+        out.print("]}");
+        out.flush();
+    }
+}
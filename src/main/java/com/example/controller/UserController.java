@@ -1,8 +1,12 @@
 package com.example.controller;
 
+import com.example.dao.RowSource;
+import com.example.exceptions.DuplicateUserException;
 import com.example.exceptions.ValidationException;
+import com.example.model.Page;
 import com.example.model.Role;
 import com.example.model.User;
+import com.example.model.UserSummary;
 import com.example.service.UserService;
 import com.example.util.SessionUtils;
 import com.example.validator.UserValidator;
@@ -36,17 +40,19 @@ public class UserController extends HttpServlet {
     private static final String ATTR_IS_EDIT = "isEdit";
     private static final String ATTR_ERRORS= "errors";
     private static final String ATTR_USER = "user";
+    private static final String ATTR_PAGE = "page";
+    private static final String ATTR_USER_SOURCE = "userSource";
+    private static final String ATTR_QUERY = "query";
+    private static final String ATTR_ROLE_COUNTS = "roleCounts";
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        if (!SessionUtils.isAdmin(request)) {
-            response.sendError(HttpServletResponse.SC_FORBIDDEN);
-            return;
-        }
-
         String path = request.getServletPath();
         logger.info("Request path: {}", path);
         try {
@@ -77,11 +83,6 @@ public class UserController extends HttpServlet {
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
 
-        if (!SessionUtils.isAdmin(request)) {
-            response.sendError(HttpServletResponse.SC_FORBIDDEN);
-            return;
-        }
-
         String path = request.getServletPath();
 
         try {
@@ -104,11 +105,48 @@ public class UserController extends HttpServlet {
 
     private void showUserList(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
-        List<User> users = userService.getAllUsers();
-        request.setAttribute("users", users);
+        request.setAttribute(ATTR_ROLE_COUNTS, userService.getRoleCounts());
+        if ("all".equals(request.getParameter("view"))) {
+            RowSource<UserSummary> source = userService::forEachUserSummary;
+            request.setAttribute(ATTR_USER_SOURCE, source);
+            request.getRequestDispatcher(ADMIN_HOME_JSP).forward(request, response);
+            return;
+        }
+
+        String query = emptyToNull(request.getParameter("q"));
+        if (query != null) {
+            request.setAttribute("users", userService.searchUsers(query, parsePageSize(request.getParameter("size"))));
+            request.setAttribute(ATTR_QUERY, query);
+            request.getRequestDispatcher(ADMIN_HOME_JSP).forward(request, response);
+            return;
+        }
+
+        String after = emptyToNull(request.getParameter("after"));
+        String before = emptyToNull(request.getParameter("before"));
+        int size = parsePageSize(request.getParameter("size"));
+
+        Page<UserSummary> page = userService.getUserPage(after, before, size);
+        request.setAttribute("users", page.getItems());
+        request.setAttribute(ATTR_PAGE, page);
         request.getRequestDispatcher(ADMIN_HOME_JSP).forward(request, response);
     }
 
+    private int parsePageSize(String sizeParam) {
+        if (sizeParam == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        try {
+            int size = Integer.parseInt(sizeParam);
+            return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        } catch (NumberFormatException e) {
+            return DEFAULT_PAGE_SIZE;
+        }
+    }
+
+    private String emptyToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value;
+    }
+
     private void showAddUserForm(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         List<Role> roles = userService.getAllRoles();
@@ -154,6 +192,14 @@ public class UserController extends HttpServlet {
         User user = createUserFromRequest(request);
         List<String> errors = userValidator.validateForCreate(user);
 
+        if (errors.isEmpty()) {
+            try {
+                userService.createUser(user);
+            } catch (DuplicateUserException e) {
+                errors = e.getErrors();
+            }
+        }
+
         if (!errors.isEmpty()) {
             request.setAttribute(ATTR_ERRORS, errors);
             request.setAttribute(ATTR_USER, user);
@@ -164,7 +210,6 @@ public class UserController extends HttpServlet {
             return;
         }
 
-        userService.createUser(user);
         response.sendRedirect(request.getContextPath() + "/admin/users?success=User created successfully");
     }
 
@@ -184,6 +229,14 @@ public class UserController extends HttpServlet {
 
         List<String> errors = userValidator.validateForUpdate(user, updatePassword);
 
+        if (errors.isEmpty()) {
+            try {
+                userService.updateUser(user, updatePassword);
+            } catch (DuplicateUserException e) {
+                errors = e.getErrors();
+            }
+        }
+
         if (!errors.isEmpty()) {
             request.setAttribute(ATTR_ERRORS, errors);
             request.setAttribute(ATTR_USER, user);
@@ -194,7 +247,6 @@ public class UserController extends HttpServlet {
             return;
         }
 
-        userService.updateUser(user, updatePassword);
         response.sendRedirect(request.getContextPath() + "/admin/users?success=User updated successfully");
     }
 
@@ -204,7 +256,7 @@ public class UserController extends HttpServlet {
         if (idParam != null) {
             try {
                 Long userId = Long.parseLong(idParam);
-                userService.deleteUser(userId, SessionUtils.getCurrentUser(request));
+                userService.deleteUser(userId, SessionUtils.getCurrentUser(request).getId());
                 response.sendRedirect(request.getContextPath() + "/admin/users?success=User deleted successfully");
             } catch (NumberFormatException e) {
                 response.sendRedirect(request.getContextPath() + "/admin/users?error=Invalid user ID");
@@ -0,0 +1,54 @@
+package com.example.controller;
+
+import com.example.service.ExportFormat;
+import com.example.service.UserExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Streams the whole user directory as CSV or JSON Lines. No content length is
+ * set, so the container sends the body with chunked transfer encoding as the
+ * bounded buffers fill up.
+ */
+@WebServlet(name = "UserExportController", urlPatterns = {"/admin/users/export"})
+public class UserExportController extends HttpServlet {
+    private static final Logger logger = LoggerFactory.getLogger(UserExportController.class);
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private final UserExportService userExportService = new UserExportService();
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        ExportFormat format = ExportFormat.fromString(request.getParameter("format"));
+        if (format == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unsupported format, use csv or jsonl");
+            return;
+        }
+
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"users-" + LocalDate.now() + "." + format.getExtension() + "\"");
+        response.setBufferSize(BUFFER_SIZE);
+
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            userExportService.exportUsers(format, writer);
+        } catch (IOException e) {
+            // the client closed the connection; nothing left to send it
+            logger.warn("User export interrupted: {}", e.getMessage());
+        }
+    }
+}
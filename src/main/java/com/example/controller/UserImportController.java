@@ -0,0 +1,68 @@
+package com.example.controller;
+
+import com.example.exceptions.ValidationException;
+import com.example.model.ImportReport;
+import com.example.service.UserImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.MultipartConfig;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.Part;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bulk user import. The upload is spooled to disk by the container above the
+ * size threshold and read back line by line, so the file is never held in memory.
+ */
+@WebServlet(name = "UserImportController", urlPatterns = {"/admin/users/import"})
+@MultipartConfig(fileSizeThreshold = 1024 * 1024, maxFileSize = 200L * 1024 * 1024, maxRequestSize = 200L * 1024 * 1024)
+public class UserImportController extends HttpServlet {
+    private static final Logger logger = LoggerFactory.getLogger(UserImportController.class);
+    private final UserImportService userImportService = new UserImportService();
+
+    private static final String USER_IMPORT_JSP = "/WEB-INF/jsp/user-import.jsp";
+    private static final String ATTR_REPORT = "report";
+    private static final String FILE_PART = "file";
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        request.getRequestDispatcher(USER_IMPORT_JSP).forward(request, response);
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        Part part = request.getPart(FILE_PART);
+        if (part == null || part.getSize() == 0) {
+            request.setAttribute("error", "Please choose a CSV file to import");
+            request.getRequestDispatcher(USER_IMPORT_JSP).forward(request, response);
+            return;
+        }
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(part.getInputStream(), StandardCharsets.UTF_8))) {
+            ImportReport report = userImportService.importUsers(reader);
+            request.setAttribute(ATTR_REPORT, report);
+        } catch (ValidationException e) {
+            request.setAttribute("error", e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error importing users from {}", part.getSubmittedFileName(), e);
+            request.setAttribute("error", "An error occurred: " + e.getMessage());
+        } finally {
+            part.delete();
+        }
+
+        request.getRequestDispatcher(USER_IMPORT_JSP).forward(request, response);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.dao;
+
+import com.example.cache.UserCache;
+import com.example.model.User;
+import com.example.model.UserSummary;
+import com.example.util.HibernateUtil;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Read-through {@link UserDao} decorator: single-user lookups by id, login and
+ * email go through {@link UserCache}. Every write invalidates before it runs and
+ * again once its transaction commits, so a reader that loads the old row in
+ * between cannot keep it. Lookups made while the bound session holds uncommitted
+ * writes bypass the cache, since they may see rows no other session can.
+ */
+public class CachingUserDao implements UserDao {
+    private final UserDao delegate;
+    private final UserCache cache;
+
+    public CachingUserDao(UserDao delegate) {
+        this(delegate, UserCache.getInstance());
+    }
+
+    public CachingUserDao(UserDao delegate, UserCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public void create(User user) {
+        cache.invalidate(user);
+        delegate.create(user);
+        invalidateAfterCommit(user);
+    }
+
+    @Override
+    public void update(User user) {
+        cache.invalidate(user);
+        delegate.update(user);
+        invalidateAfterCommit(user);
+    }
+
+    @Override
+    public int updateProfile(User user, boolean updatePassword) {
+        cache.invalidate(user);
+        int rows = delegate.updateProfile(user, updatePassword);
+        invalidateAfterCommit(user);
+        return rows;
+    }
+
+    @Override
+    public int updatePassword(User user, String password) {
+        cache.invalidate(user);
+        int rows = delegate.updatePassword(user, password);
+        invalidateAfterCommit(user);
+        return rows;
+    }
+
+    @Override
+    public void remove(User user) {
+        cache.invalidate(user);
+        delegate.remove(user);
+        invalidateAfterCommit(user);
+    }
+
+    @Override
+    public void createAll(Collection<User> users) {
+        users.forEach(cache::invalidate);
+        delegate.createAll(users);
+        HibernateUtil.afterCommit(() -> users.forEach(cache::invalidate));
+    }
+
+    @Override
+    public void updateAll(Collection<User> users) {
+        users.forEach(cache::invalidate);
+        delegate.updateAll(users);
+        HibernateUtil.afterCommit(() -> users.forEach(cache::invalidate));
+    }
+
+    @Override
+    public void removeAll(Collection<User> users) {
+        users.forEach(cache::invalidate);
+        delegate.removeAll(users);
+        HibernateUtil.afterCommit(() -> users.forEach(cache::invalidate));
+    }
+
+    @Override
+    public User findById(Long id) {
+        if (HibernateUtil.hasUncommittedWrites()) {
+            return delegate.findById(id);
+        }
+        return cache.getById(id, () -> delegate.findById(id));
+    }
+
+    @Override
+    public User findByLogin(String login) {
+        if (HibernateUtil.hasUncommittedWrites()) {
+            return delegate.findByLogin(login);
+        }
+        return cache.getByLogin(login, () -> delegate.findByLogin(login));
+    }
+
+    @Override
+    public User findByEmail(String email) {
+        if (HibernateUtil.hasUncommittedWrites()) {
+            return delegate.findByEmail(email);
+        }
+        return cache.getByEmail(email, () -> delegate.findByEmail(email));
+    }
+
+    @Override
+    public List<User> findByLoginOrEmail(String login, String email) {
+        return delegate.findByLoginOrEmail(login, email);
+    }
+
+    @Override
+    public Set<String> findExistingLogins(Collection<String> logins) {
+        return delegate.findExistingLogins(logins);
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return delegate.findExistingEmails(emails);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<UserSummary> findSummaryPage(String afterLogin, int limit, SortDirection sort) {
+        return delegate.findSummaryPage(afterLogin, limit, sort);
+    }
+
+    @Override
+    public void forEachSummary(Consumer<? super UserSummary> action) {
+        delegate.forEachSummary(action);
+    }
+
+    @Override
+    public List<UserSummary> search(String query, int limit) {
+        return delegate.search(query, limit);
+    }
+
+    @Override
+    public void forEach(Consumer<? super User> action) {
+        delegate.forEach(action);
+    }
+
+    private void invalidateAfterCommit(User user) {
+        HibernateUtil.afterCommit(() -> cache.invalidate(user));
+    }
+}
@@ -1,11 +1,15 @@
 package com.example.dao;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface Dao<E> {
+public interface Dao<E> extends RowSource<E> {
     void create(E e);
     void update(E e);
     void remove(E e);
+    void createAll(Collection<E> entities);
+    void updateAll(Collection<E> entities);
+    void removeAll(Collection<E> entities);
     List<E> findAll();
     E findById(Long id);
 }
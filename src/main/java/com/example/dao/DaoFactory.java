@@ -0,0 +1,24 @@
+package com.example.dao;
+
+/**
+ * The DAOs services should use, wrapped in {@link InstrumentedDao}. The user DAO
+ * is instrumented on both sides of its cache, so the metrics show what callers
+ * waited for ({@code CachingUserDao.*}) apart from what reached the database
+ * ({@code HibernateUserDao.*}).
+ */
+public final class DaoFactory {
+    private static final UserDao userDao = InstrumentedDao.wrap(UserDao.class,
+            new CachingUserDao(InstrumentedDao.wrap(UserDao.class, new HibernateUserDao())));
+    private static final RoleDao roleDao = InstrumentedDao.wrap(RoleDao.class, new HibernateRoleDao());
+
+    private DaoFactory() {
+    }
+
+    public static UserDao getUserDao() {
+        return userDao;
+    }
+
+    public static RoleDao getRoleDao() {
+        return roleDao;
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.dao;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Maps result set rows to an entity using its JPA column annotations.
+ * <p>
+ * Reflection only runs once per entity type, to turn the constructor and setters
+ * into plain lambdas. Column labels are resolved to indexes once per query shape
+ * from {@link ResultSetMetaData}, so the per-row loop reads by index only.
+ * A {@code @ManyToOne} association is filled from its join column plus any
+ * columns labelled {@code <field>_<column>}, e.g. {@code role_id, role_name}.
+ * An association leading back to a type already being mapped on that path, such
+ * as a self-reference or a bidirectional pair, is left unset.
+ */
+public final class EntityRowMapper<E> {
+    private static final Map<Class<?>, EntityRowMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+
+    private final Class<E> type;
+    private final Supplier<E> factory;
+    private final List<Property<E>> properties = new ArrayList<>();
+    private final List<Association<E>> associations = new ArrayList<>();
+    private final Map<String, Plan> plans = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public static <E> EntityRowMapper<E> forEntity(Class<E> type) {
+        EntityRowMapper<?> mapper = MAPPERS.get(type);
+        if (mapper == null) {
+            // associations only hold their target type, so building never recurses
+            EntityRowMapper<E> created = new EntityRowMapper<>(type);
+            mapper = MAPPERS.putIfAbsent(type, created);
+            if (mapper == null) {
+                mapper = created;
+            }
+        }
+        return (EntityRowMapper<E>) mapper;
+    }
+
+    private EntityRowMapper(Class<E> type) {
+        this.type = type;
+        this.factory = constructor(type);
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                if (field.isAnnotationPresent(ManyToOne.class)) {
+                    associations.add(new Association<>(field.getName(), joinColumn(field),
+                            field.getType(), setter(type, field)));
+                } else if (field.isAnnotationPresent(Column.class) || field.isAnnotationPresent(Id.class)) {
+                    properties.add(new Property<>(columnName(field), reader(field.getType()), setter(type, field)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps every remaining row. {@code shape} identifies the query (for example its
+     * statement name) so the column indexes are resolved only the first time.
+     */
+    public List<E> mapAll(String shape, ResultSet rs) throws SQLException {
+        Plan plan = plan(shape, rs);
+        List<E> entities = new ArrayList<>();
+        while (rs.next()) {
+            entities.add(map(rs, plan));
+        }
+        return entities;
+    }
+
+    public E mapRow(String shape, ResultSet rs) throws SQLException {
+        return map(rs, plan(shape, rs));
+    }
+
+    public E mapRow(ResultSet rs) throws SQLException {
+        return map(rs, resolve(labels(rs)));
+    }
+
+    public Plan plan(String shape, ResultSet rs) throws SQLException {
+        Plan plan = plans.get(shape);
+        if (plan == null) {
+            plan = resolve(labels(rs));
+            plans.putIfAbsent(shape, plan);
+        }
+        return plan;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E map(ResultSet rs, Plan plan) throws SQLException {
+        E entity = factory.get();
+        for (int i = 0; i < plan.indexes.length; i++) {
+            int index = plan.indexes[i];
+            if (index > 0) {
+                Property<E> property = properties.get(i);
+                property.setter.accept(entity, property.reader.read(rs, index));
+            }
+        }
+        for (int i = 0; i < plan.associationIndexes.length; i++) {
+            int index = plan.associationIndexes[i];
+            if (index > 0) {
+                rs.getObject(index);
+                if (!rs.wasNull()) {
+                    Association<E> association = associations.get(i);
+                    Object related = ((EntityRowMapper<Object>) plan.associationMappers[i]).map(rs, plan.associationPlans[i]);
+                    association.setter.accept(entity, related);
+                }
+            }
+        }
+        return entity;
+    }
+
+    private Plan resolve(Map<String, Integer> labels) {
+        Set<Class<?>> path = new HashSet<>();
+        path.add(type);
+        return resolve(labels, "", path);
+    }
+
+    /**
+     * {@code path} holds the types being mapped from the root down to this one;
+     * an association to any of them gets index 0, which ends the recursion.
+     */
+    private Plan resolve(Map<String, Integer> labels, String prefix, Set<Class<?>> path) {
+        int[] indexes = new int[properties.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = labels.getOrDefault(normalize(prefix + properties.get(i).column), 0);
+        }
+
+        int[] associationIndexes = new int[associations.size()];
+        Plan[] associationPlans = new Plan[associations.size()];
+        EntityRowMapper<?>[] associationMappers = new EntityRowMapper<?>[associations.size()];
+        for (int i = 0; i < associationIndexes.length; i++) {
+            Association<E> association = associations.get(i);
+            if (!path.add(association.type)) {
+                continue;
+            }
+            associationIndexes[i] = labels.getOrDefault(normalize(prefix + association.joinColumn), 0);
+            associationMappers[i] = forEntity(association.type);
+            associationPlans[i] = associationMappers[i].resolve(labels, prefix + association.field + "_", path);
+            path.remove(association.type);
+        }
+        return new Plan(indexes, associationIndexes, associationPlans, associationMappers);
+    }
+
+    private static Map<String, Integer> labels(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        Map<String, Integer> labels = new HashMap<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            labels.putIfAbsent(normalize(metaData.getColumnLabel(i)), i);
+        }
+        return labels;
+    }
+
+    private static String normalize(String label) {
+        return label.toUpperCase(Locale.ROOT);
+    }
+
+    private static String columnName(Field field) {
+        Column column = field.getAnnotation(Column.class);
+        return column != null && !column.name().isEmpty() ? column.name() : field.getName();
+    }
+
+    private static String joinColumn(Field field) {
+        JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
+        return joinColumn != null && !joinColumn.name().isEmpty() ? joinColumn.name() : field.getName() + "_id";
+    }
+
+    private static ColumnReader reader(Class<?> type) {
+        if (type == Long.class || type == long.class) {
+            return (rs, i) -> {
+                long value = rs.getLong(i);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == Integer.class || type == int.class) {
+            return (rs, i) -> {
+                int value = rs.getInt(i);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return (rs, i) -> {
+                boolean value = rs.getBoolean(i);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == String.class) {
+            return ResultSet::getString;
+        }
+        if (type == BigDecimal.class) {
+            return ResultSet::getBigDecimal;
+        }
+        if (type == LocalDate.class) {
+            return (rs, i) -> {
+                Date value = rs.getDate(i);
+                return value != null ? value.toLocalDate() : null;
+            };
+        }
+        if (type == LocalDateTime.class) {
+            return (rs, i) -> {
+                Timestamp value = rs.getTimestamp(i);
+                return value != null ? value.toLocalDateTime() : null;
+            };
+        }
+        return (rs, i) -> rs.getObject(i, type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> constructor(Class<T> type) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.findConstructor(type, MethodType.methodType(void.class));
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    handle, MethodType.methodType(type));
+            return (Supplier<T>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("No public no-arg constructor on " + type.getName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> BiConsumer<T, Object> setter(Class<T> type, Field field) {
+        String name = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.findVirtual(type, name, MethodType.methodType(void.class, field.getType()));
+            CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle, handle.type().wrap().changeReturnType(void.class));
+            return (BiConsumer<T, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("No public setter " + name + " on " + type.getName(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet rs, int index) throws SQLException;
+    }
+
+    private static final class Property<E> {
+        private final String column;
+        private final ColumnReader reader;
+        private final BiConsumer<E, Object> setter;
+
+        private Property(String column, ColumnReader reader, BiConsumer<E, Object> setter) {
+            this.column = column;
+            this.reader = reader;
+            this.setter = setter;
+        }
+    }
+
+    private static final class Association<E> {
+        private final String field;
+        private final String joinColumn;
+        private final Class<?> type;
+        private final BiConsumer<E, Object> setter;
+
+        private Association(String field, String joinColumn, Class<?> type, BiConsumer<E, Object> setter) {
+            this.field = field;
+            this.joinColumn = joinColumn;
+            this.type = type;
+            this.setter = setter;
+        }
+    }
+
+    /**
+     * Column indexes for one query shape; 0 marks a column the query does not select.
+     */
+    public static final class Plan {
+        private final int[] indexes;
+        private final int[] associationIndexes;
+        private final Plan[] associationPlans;
+        private final EntityRowMapper<?>[] associationMappers;
+
+        private Plan(int[] indexes, int[] associationIndexes, Plan[] associationPlans,
+                     EntityRowMapper<?>[] associationMappers) {
+            this.indexes = indexes;
+            this.associationIndexes = associationIndexes;
+            this.associationPlans = associationPlans;
+            this.associationMappers = associationMappers;
+        }
+    }
+}
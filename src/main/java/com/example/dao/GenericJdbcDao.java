@@ -2,33 +2,98 @@ package com.example.dao;
 
 import com.example.exceptions.DatabaseWriteException;
 import com.example.exceptions.DatabaseReadException;
+import com.example.metrics.QueryTrace;
+import com.example.util.Batches;
 import com.example.util.DatabaseManager;
+import com.example.util.NamedStatement;
+import com.example.util.StatementRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
-
-import static java.sql.Statement.RETURN_GENERATED_KEYS;
+import java.util.function.Consumer;
 
 public abstract class GenericJdbcDao<E> implements Dao<E> {
     protected static final Logger logger = LoggerFactory.getLogger(GenericJdbcDao.class);
+    protected static final String INSERT = "insert";
+    protected static final String UPDATE = "update";
+    protected static final String DELETE = "delete";
+    protected static final String FIND_ALL = "findAll";
+    protected static final String FIND_BY_ID = "findById";
+    protected static final String BATCH_SIZE_PROPERTY = "db.batch.size";
+    protected static final int DEFAULT_BATCH_SIZE = 500;
+    protected static final String FETCH_SIZE_PROPERTY = "db.fetch.size";
+    protected static final int DEFAULT_FETCH_SIZE = 200;
+
     protected DatabaseManager databaseManager;
+    protected final StatementRegistry statementRegistry = StatementRegistry.getInstance();
+    protected int batchSize;
+    protected int fetchSize;
 
     public GenericJdbcDao() {
-        this.databaseManager = DatabaseManager.getInstance();
+        this(DatabaseManager.getInstance());
     }
 
     public GenericJdbcDao(DatabaseManager databaseManager) {
         this.databaseManager = databaseManager;
+        this.batchSize = DatabaseManager.getIntProperty(BATCH_SIZE_PROPERTY, DEFAULT_BATCH_SIZE);
+        this.fetchSize = DatabaseManager.getIntProperty(FETCH_SIZE_PROPERTY, DEFAULT_FETCH_SIZE);
+        declareStatements();
+        statementRegistry.validate(databaseManager);
+    }
+
+    /**
+     * Registers the SQL this DAO runs. Subclasses with extra queries override this,
+     * call super and register theirs through {@link #declareStatement}.
+     */
+    protected void declareStatements() {
+        declareStatement(INSERT, getInsertQuery(), true);
+        declareStatement(UPDATE, getUpdateQuery(), false);
+        declareStatement(DELETE, getDeleteQuery(), false);
+        declareStatement(FIND_ALL, getFindAllQuery(), false);
+        declareStatement(FIND_BY_ID, getFindByIdQuery(), false);
+    }
+
+    protected final void declareStatement(String operation, String sql, boolean returnGeneratedKeys) {
+        statementRegistry.register(statementName(operation), sql, returnGeneratedKeys);
+    }
+
+    protected final String statementName(String operation) {
+        return getTableName() + "." + operation;
+    }
+
+    /**
+     * Prepares the registered statement for {@code operation}. The pool keeps
+     * prepared statements open per connection, so closing it returns it there.
+     */
+    protected PreparedStatement prepare(Connection connection, String operation) throws SQLException {
+        NamedStatement statement = statementRegistry.get(statementName(operation));
+        QueryTrace.record(statement.getSql());
+        int keys = statement.isReturnGeneratedKeys() ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS;
+        return connection.prepareStatement(statement.getSql(), keys);
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
     }
 
     public void create(E entity) {
         try (Connection connection = databaseManager.getConnection()) {
             connection.setAutoCommit(false);
-            try (PreparedStatement ps = connection.prepareStatement(getInsertQuery(), RETURN_GENERATED_KEYS)) {
+            try (PreparedStatement ps = prepare(connection, INSERT)) {
                 setInsertParameters(ps, entity);
                 int rows = ps.executeUpdate();
                 if (rows == 0) {
@@ -55,7 +120,7 @@ public abstract class GenericJdbcDao<E> implements Dao<E> {
     public void update(E entity) {
         try (Connection connection = databaseManager.getConnection()) {
             connection.setAutoCommit(false);
-            try (PreparedStatement ps = connection.prepareStatement(getUpdateQuery())) {
+            try (PreparedStatement ps = prepare(connection, UPDATE)) {
                 setUpdateParameters(ps, entity);
                 int affectedRows = ps.executeUpdate();
                 if (affectedRows == 0) {
@@ -76,7 +141,7 @@ public abstract class GenericJdbcDao<E> implements Dao<E> {
     public void remove(E entity) {
         try (Connection connection = databaseManager.getConnection()) {
             connection.setAutoCommit(false);
-            try (PreparedStatement ps = connection.prepareStatement(getDeleteQuery())) {
+            try (PreparedStatement ps = prepare(connection, DELETE)) {
                 ps.setLong(1, getEntityId(entity));
                 int affectedRows = ps.executeUpdate();
                 if (affectedRows == 0) {
@@ -94,12 +159,79 @@ public abstract class GenericJdbcDao<E> implements Dao<E> {
         }
     }
 
+    /**
+     * Inserts the entities with JDBC batching, committing every {@code batchSize} rows.
+     * A failure rolls back only the chunk in progress; earlier chunks stay committed.
+     */
+    @Override
+    public void createAll(Collection<E> entities) {
+        executeBatch(entities, INSERT, this::setInsertParameters, "creating");
+    }
+
+    @Override
+    public void updateAll(Collection<E> entities) {
+        executeBatch(entities, UPDATE, this::setUpdateParameters, "updating");
+    }
+
+    @Override
+    public void removeAll(Collection<E> entities) {
+        executeBatch(entities, DELETE, (ps, entity) -> ps.setLong(1, getEntityId(entity)), "deleting");
+    }
+
+    private void executeBatch(Collection<E> entities, String statementOperation,
+                              StatementBinder<E> binder, String operation) {
+        if (entities == null || entities.isEmpty()) {
+            return;
+        }
+
+        int processed = 0;
+        try (Connection connection = databaseManager.getConnection()) {
+            connection.setAutoCommit(false);
+            boolean returnKeys = INSERT.equals(statementOperation);
+            try (PreparedStatement ps = prepare(connection, statementOperation)) {
+                for (List<E> chunk : Batches.partition(entities, batchSize)) {
+                    for (E entity : chunk) {
+                        binder.bind(ps, entity);
+                        ps.addBatch();
+                    }
+                    int[] counts = ps.executeBatch();
+                    for (int count : counts) {
+                        if (count == 0) {
+                            throw new SQLException("Batch " + operation + " failed, no rows affected.");
+                        }
+                    }
+                    if (returnKeys) {
+                        assignGeneratedKeys(ps, chunk);
+                    }
+                    connection.commit();
+                    processed += chunk.size();
+                }
+                logger.debug("Batch {} finished for {} entities", operation, processed);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            logger.error("Error {} entities in batch after {} committed rows", operation, processed, e);
+            throw new DatabaseWriteException("Error " + operation + " entities", e);
+        }
+    }
+
+    private void assignGeneratedKeys(PreparedStatement ps, List<E> chunk) throws SQLException {
+        try (ResultSet rs = ps.getGeneratedKeys()) {
+            Iterator<E> iterator = chunk.iterator();
+            while (rs.next() && iterator.hasNext()) {
+                setEntityId(iterator.next(), rs.getLong(1));
+            }
+        }
+    }
+
     public List<E> findAll() {
         try (Connection connection = databaseManager.getConnection();
-             PreparedStatement ps = connection.prepareStatement(getFindAllQuery());
+             PreparedStatement ps = prepare(connection, FIND_ALL);
              ResultSet rs = ps.executeQuery()) {
 
-            return mapResultSetToList(rs);
+            return mapResultSetToList(statementName(FIND_ALL), rs);
 
         } catch (SQLException e) {
             logger.error("Error finding all entities", e);
@@ -107,6 +239,30 @@ public abstract class GenericJdbcDao<E> implements Dao<E> {
         }
     }
 
+    /**
+     * Streams the find-all query through a forward-only cursor; rows are mapped and
+     * handed to {@code action} one by one instead of being collected into a list.
+     */
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement ps = prepare(connection, FIND_ALL)) {
+
+            ps.setFetchSize(fetchSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                EntityRowMapper<E> rowMapper = getRowMapper();
+                EntityRowMapper.Plan plan = rowMapper.plan(statementName(FIND_ALL), rs);
+                while (rs.next()) {
+                    action.accept(rowMapper.map(rs, plan));
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error streaming entities", e);
+            throw new DatabaseReadException("Error streaming entities", e);
+        }
+    }
+
     public E findById(Long id) {
         if (id == null) {
             logger.debug("Attempted to find entity with null id, returning null");
@@ -114,12 +270,12 @@ public abstract class GenericJdbcDao<E> implements Dao<E> {
         }
 
         try (Connection connection = databaseManager.getConnection();
-             PreparedStatement ps = connection.prepareStatement(getFindByIdQuery())) {
+             PreparedStatement ps = prepare(connection, FIND_BY_ID)) {
 
             ps.setLong(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToEntity(rs);
+                    return getRowMapper().mapRow(statementName(FIND_BY_ID), rs);
                 }
                 return null;
             }
@@ -130,14 +286,18 @@ public abstract class GenericJdbcDao<E> implements Dao<E> {
         }
     }
 
-    protected List<E> mapResultSetToList(ResultSet rs) throws SQLException {
-        List<E> entities = new java.util.ArrayList<>();
-        while (rs.next()) {
-            entities.add(mapResultSetToEntity(rs));
-        }
-        return entities;
+    /**
+     * Maps a result set whose shape is identified by {@code shape} (normally a
+     * statement name), so the row mapper resolves its column indexes only once.
+     */
+    protected List<E> mapResultSetToList(String shape, ResultSet rs) throws SQLException {
+        return getRowMapper().mapAll(shape, rs);
     }
 
+    @FunctionalInterface
+    protected interface StatementBinder<E> {
+        void bind(PreparedStatement preparedStatement, E entity) throws SQLException;
+    }
 
     protected abstract String getTableName();
     protected abstract String getInsertQuery();
@@ -151,5 +311,10 @@ public abstract class GenericJdbcDao<E> implements Dao<E> {
 
     protected abstract Long getEntityId(E entity);
     protected abstract void setEntityId(E entity, Long id);
-    protected abstract E mapResultSetToEntity(ResultSet resultSet) throws SQLException;
+
+    /**
+     * Normally {@code EntityRowMapper.forEntity(...)}, which maps rows from the
+     * entity's JPA annotations. Abstract, so a DAO without a mapping does not compile.
+     */
+    protected abstract EntityRowMapper<E> getRowMapper();
 }
\ No newline at end of file
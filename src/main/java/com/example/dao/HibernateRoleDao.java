@@ -1,125 +1,224 @@
 package com.example.dao;
 
+import com.example.cache.RoleMembershipCounters;
+import com.example.cache.RoleRegistry;
 import com.example.model.Role;
+import com.example.util.Batches;
+import com.example.util.DatabaseManager;
 import com.example.util.HibernateUtil;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.persistence.NoResultException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public class HibernateRoleDao implements RoleDao {
     private static final Logger logger = LoggerFactory.getLogger(HibernateRoleDao.class);
 
+    private final int batchSize = DatabaseManager.getIntProperty("db.batch.size", 500);
+    private final RoleRegistry roleRegistry = RoleRegistry.getInstance();
+    private final RoleMembershipCounters membershipCounters = RoleMembershipCounters.getInstance();
+
     @Override
     public void create(Role role) {
-        try (Session session = HibernateUtil.openSession()) {
-            Transaction transaction = session.beginTransaction();
-            try {
-                session.save(role);
-                transaction.commit();
-                logger.debug("Role created successfully: {}", role.getName());
-            } catch (Exception e) {
-                transaction.rollback();
-                logger.error("Error creating role: {}", role.getName(), e);
-                throw new RuntimeException("Error creating role", e);
-            }
+        try {
+            HibernateUtil.inTransaction(session -> session.save(role));
+            HibernateUtil.afterCommit(() -> roleRegistry.put(role));
+            logger.debug("Role created successfully: {}", role.getName());
+        } catch (Exception e) {
+            logger.error("Error creating role: {}", role.getName(), e);
+            throw new RuntimeException("Error creating role", e);
         }
     }
 
     @Override
     public void update(Role role) {
-        try (Session session = HibernateUtil.openSession()) {
-            Transaction transaction = session.beginTransaction();
-            try {
+        try {
+            HibernateUtil.inTransaction(session -> {
+                if (HibernateUtil.hasCurrentSession()) {
+                    return session.merge(role);
+                }
                 session.update(role);
-                transaction.commit();
-                logger.debug("Role updated successfully: {}", role.getName());
-            } catch (Exception e) {
-                transaction.rollback();
-                logger.error("Error updating role: {}", role.getName(), e);
-                throw new RuntimeException("Error updating role", e);
-            }
+                return role;
+            });
+            HibernateUtil.afterCommit(() -> roleRegistry.put(role));
+            logger.debug("Role updated successfully: {}", role.getName());
+        } catch (Exception e) {
+            logger.error("Error updating role: {}", role.getName(), e);
+            throw new RuntimeException("Error updating role", e);
         }
     }
 
     @Override
     public void remove(Role role) {
-        try (Session session = HibernateUtil.openSession()) {
-            Transaction transaction = session.beginTransaction();
-            try {
-                session.delete(role);
-                transaction.commit();
-                logger.debug("Role removed successfully: {}", role.getName());
-            } catch (Exception e) {
-                transaction.rollback();
-                logger.error("Error removing role: {}", role.getName(), e);
-                throw new RuntimeException("Error removing role", e);
+        try {
+            // Hibernate would silently skip deleting a role that was never saved
+            if (role.getId() == null) {
+                throw new IllegalArgumentException("Role has no id");
             }
+            HibernateUtil.inTransaction(session -> {
+                session.delete(HibernateUtil.hasCurrentSession() ? session.merge(role) : role);
+                return null;
+            });
+            HibernateUtil.afterCommit(() -> roleRegistry.remove(role));
+            logger.debug("Role removed successfully: {}", role.getName());
+        } catch (Exception e) {
+            logger.error("Error removing role: {}", role.getName(), e);
+            throw new RuntimeException("Error removing role", e);
         }
     }
 
     @Override
-    public Role findById(Long id) {
-        try (Session session = HibernateUtil.openSession()) {
-            CriteriaBuilder cb = session.getCriteriaBuilder();
-            CriteriaQuery<Role> cq = cb.createQuery(Role.class);
-            Root<Role> root = cq.from(Role.class);
-            cq.select(root).where(cb.equal(root.get("id"), id));
+    public void createAll(Collection<Role> roles) {
+        executeInChunks(roles, Session::save, "creating");
+        roles.forEach(roleRegistry::put);
+    }
 
-            return session.createQuery(cq).uniqueResult();
-        } catch (Exception e) {
-            logger.error("Error finding role by id: {}", id, e);
-            throw new RuntimeException("Error finding role by id", e);
+    @Override
+    public void updateAll(Collection<Role> roles) {
+        executeInChunks(roles, Session::update, "updating");
+        roles.forEach(roleRegistry::put);
+    }
+
+    @Override
+    public void removeAll(Collection<Role> roles) {
+        executeInChunks(roles, Session::delete, "removing");
+        roles.forEach(roleRegistry::remove);
+    }
+
+    private void executeInChunks(Collection<Role> roles, BiConsumer<Session, Role> operation, String action) {
+        if (roles == null || roles.isEmpty()) {
+            return;
         }
+
+        for (List<Role> chunk : Batches.partition(roles, batchSize)) {
+            try (Session session = HibernateUtil.openSession()) {
+                Transaction transaction = session.beginTransaction();
+                try {
+                    for (Role role : chunk) {
+                        operation.accept(session, role);
+                    }
+                    transaction.commit();
+                    logger.debug("Batch {} finished for {} roles", action, chunk.size());
+                } catch (Exception e) {
+                    transaction.rollback();
+                    logger.error("Error {} batch of {} roles", action, chunk.size(), e);
+                    throw new RuntimeException("Error " + action + " roles", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Role findById(Long id) {
+        return registry().findById(id);
     }
 
     @Override
     public List<Role> findAll() {
-        try (Session session = HibernateUtil.openSession()) {
-            String hql = "FROM Role r ORDER BY r.name";
-            Query<Role> query = session.createQuery(hql, Role.class);
+        return registry().findAll();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Role> action) {
+        findAll().forEach(action);
+    }
+
+    @Override
+    public Role findByName(String name) {
+        return registry().findByName(name);
+    }
+
+    /**
+     * Reloads the role registry from the database and returns the number of roles.
+     */
+    public int refreshRegistry() {
+        List<Role> roles = loadAll();
+        roleRegistry.load(roles);
+        logger.info("Role registry loaded with {} roles", roles.size());
+        return roles.size();
+    }
+
+    private RoleRegistry registry() {
+        if (!roleRegistry.isLoaded()) {
+            roleRegistry.loadIfAbsent(loadAll());
+        }
+        return roleRegistry;
+    }
+
+    private List<Role> loadAll() {
+        try {
+            return HibernateUtil.inSession(session -> {
+                String hql = "FROM Role r ORDER BY r.name";
+                Query<Role> query = session.createQuery(hql, Role.class);
 
-            return query.list();
+                return query.list();
+            });
         } catch (Exception e) {
             logger.error("Error finding all roles", e);
             throw new RuntimeException("Error finding all roles", e);
         }
     }
 
+    /**
+     * Served from {@link RoleMembershipCounters}; only the first call after startup
+     * runs the GROUP BY query. Roles without users are reported as 0.
+     */
     @Override
-    public Role findByName(String name) {
-        try (Session session = HibernateUtil.openSession()) {
-            String hql = "FROM Role r WHERE r.name = :name";
-            Query<Role> query = session.createQuery(hql, Role.class);
-            query.setParameter("name", name);
-
-            return query.uniqueResult();
-        } catch (NoResultException e) {
-            return null;
-        } catch (Exception e) {
-            logger.error("Error finding role by name: {}", name, e);
-            throw new RuntimeException("Error finding role by name", e);
+    public Map<String, Long> countUsersByRole() {
+        Map<Long, Long> counts = userCounts();
+        Map<String, Long> byName = new LinkedHashMap<>();
+        for (Role role : findAll()) {
+            byName.put(role.getName(), counts.getOrDefault(role.getId(), 0L));
         }
+        return byName;
     }
 
     public long countUsers(String roleName) {
+        Role role = findByName(roleName);
+        if (role == null) {
+            return 0L;
+        }
+        return userCounts().getOrDefault(role.getId(), 0L);
+    }
+
+    /**
+     * Recounts users per role with one GROUP BY and resets the live counters.
+     * Runs in a session of its own so a request's uncommitted writes, which the
+     * counters only see after commit, are never counted twice.
+     */
+    public Map<Long, Long> reconcileUserCounts() {
+        membershipCounters.beginReconcile();
         try (Session session = HibernateUtil.openSession()) {
-            String hql = "SELECT COUNT(u) FROM User u WHERE u.role.name = :roleName";
-            Query<Long> query = session.createQuery(hql, Long.class);
-            query.setParameter("roleName", roleName);
+            String hql = "SELECT r.id, COUNT(u.id) FROM Role r LEFT JOIN r.users u GROUP BY r.id";
+            Query<Object[]> query = session.createQuery(hql, Object[].class);
 
-            Long count = query.uniqueResult();
-            return count != null ? count : 0L;
+            Map<Long, Long> counts = new HashMap<>();
+            for (Object[] row : query.list()) {
+                counts.put((Long) row[0], (Long) row[1]);
+            }
+            membershipCounters.finishReconcile(counts);
+            logger.debug("Role membership counts reconciled: {}", counts);
+            return counts;
         } catch (Exception e) {
-            logger.error("Error counting users for role: {}", roleName, e);
-            throw new RuntimeException("Error counting users for role", e);
+            membershipCounters.abortReconcile();
+            logger.error("Error counting users by role", e);
+            throw new RuntimeException("Error counting users by role", e);
+        }
+    }
+
+    private Map<Long, Long> userCounts() {
+        if (!membershipCounters.isLoaded()) {
+            reconcileUserCounts();
         }
+        return membershipCounters.snapshot();
     }
-}
\ No newline at end of file
+}
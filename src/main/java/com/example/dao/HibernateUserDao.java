@@ -1,9 +1,18 @@
 package com.example.dao;
 
+import com.example.cache.RoleMembershipCounters;
+import com.example.cache.UserCache;
+import com.example.metrics.QueryTrace;
 import com.example.model.User;
+import com.example.model.UserSummary;
+import com.example.security.SessionRegistry;
+import com.example.util.Batches;
+import com.example.util.DatabaseManager;
 import com.example.util.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
-import org.hibernate.Transaction;
+import org.hibernate.query.NativeQuery;
 import org.hibernate.query.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,78 +21,351 @@ import javax.persistence.NoResultException;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 public class HibernateUserDao implements UserDao {
     private static final Logger logger = LoggerFactory.getLogger(HibernateUserDao.class);
+    private static final String SUMMARY_SELECT =
+            "SELECT new com.example.model.UserSummary(u.id, u.login, u.firstName, u.lastName, u.birthday, r.name) " +
+                    "FROM User u LEFT JOIN u.role r";
+    private static final String SEARCH_SQL =
+            "SELECT u.id, u.login, u.first_name, u.last_name, u.birthday, r.name FROM users u " +
+                    "LEFT JOIN roles r ON r.id = u.role_id WHERE u.id IN (" +
+                    "(SELECT id FROM users WHERE login_lower LIKE :prefix ORDER BY login_lower LIMIT :limit) UNION " +
+                    "(SELECT id FROM users WHERE email_lower LIKE :prefix ORDER BY email_lower LIMIT :limit) UNION " +
+                    "(SELECT id FROM users WHERE first_name_lower LIKE :prefix ORDER BY first_name_lower LIMIT :limit) UNION " +
+                    "(SELECT id FROM users WHERE last_name_lower LIKE :prefix ORDER BY last_name_lower LIMIT :limit) UNION " +
+                    "(SELECT CAST(ft.KEYS[1] AS BIGINT) FROM FT_SEARCH_DATA(:text, :limit, 0) ft " +
+                    "WHERE ft.\"TABLE\" = 'USERS')) " +
+                    "ORDER BY u.login LIMIT :limit";
+    private static final String INSERT_SQL =
+            "INSERT INTO users (login, password, email, first_name, last_name, birthday, role_id) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final int batchSize = DatabaseManager.getIntProperty("db.batch.size", 500);
+    private final int fetchSize = DatabaseManager.getIntProperty("db.fetch.size", 200);
+    private final UserCache userCache = UserCache.getInstance();
+    private final RoleMembershipCounters membershipCounters = RoleMembershipCounters.getInstance();
+    private final SessionRegistry sessionRegistry = SessionRegistry.getInstance();
 
     @Override
     public void create(User user) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.openSession()) {
-            transaction = session.beginTransaction();
-
-            session.save(user);
-
-            transaction.commit();
+        try {
+            HibernateUtil.inTransaction(session -> session.save(user));
+            invalidateAfterCommit(user);
+            HibernateUtil.afterCommit(() -> membershipCounters.increment(roleId(user)));
             logger.debug("User created successfully: {}", user.getLogin());
         } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
             logger.error("Error creating user: {}", user.getLogin(), e);
             throw new RuntimeException("Error creating user", e);
         }
     }
 
+    /**
+     * A request-scoped session may already hold this user, so the detached instance
+     * is merged there instead of reattached.
+     */
     @Override
     public void update(User user) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.openSession()) {
-            transaction = session.beginTransaction();
-
-            session.update(user);
-
-            transaction.commit();
+        try {
+            Long previousRoleId = HibernateUtil.inTransaction(session -> {
+                Long roleId = currentRoleIds(session, Collections.singletonList(user.getId())).get(user.getId());
+                if (HibernateUtil.hasCurrentSession()) {
+                    session.merge(user);
+                } else {
+                    session.update(user);
+                }
+                return roleId;
+            });
+            invalidateAfterCommit(user);
+            HibernateUtil.afterCommit(() -> membershipCounters.move(previousRoleId, roleId(user)));
+            HibernateUtil.afterCommit(() -> sessionRegistry.refresh(user));
             logger.debug("User updated successfully: {}", user.getLogin());
         } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
             logger.error("Error updating user: {}", user.getLogin(), e);
             throw new RuntimeException("Error updating user", e);
         }
     }
 
+    /**
+     * Copies the editable fields onto the managed user, so the change goes through
+     * the entity and only this user's cache entries are refreshed; a bulk UPDATE
+     * would drop the whole User, natural-id and query cache regions. The password
+     * is only copied when {@code updatePassword} is set. Returns 0 if the user does
+     * not exist.
+     */
     @Override
-    public void remove(User user) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.openSession()) {
-            transaction = session.beginTransaction();
+    public int updateProfile(User user, boolean updatePassword) {
+        try {
+            Long[] previousRoleId = new Long[1];
+            int rows = HibernateUtil.inTransaction(session -> {
+                User stored = user.getId() != null ? session.get(User.class, user.getId()) : null;
+                if (stored == null) {
+                    return 0;
+                }
+                previousRoleId[0] = roleId(stored);
+                stored.setLogin(user.getLogin());
+                stored.setEmail(user.getEmail());
+                stored.setFirstName(user.getFirstName());
+                stored.setLastName(user.getLastName());
+                stored.setBirthday(user.getBirthday());
+                stored.setRole(user.getRole());
+                if (updatePassword) {
+                    stored.setPassword(user.getPassword());
+                }
+                return 1;
+            });
 
-            session.delete(user);
+            invalidateAfterCommit(user);
+            if (rows > 0) {
+                HibernateUtil.afterCommit(() -> membershipCounters.move(previousRoleId[0], roleId(user)));
+                HibernateUtil.afterCommit(() -> sessionRegistry.refresh(user));
+            }
+            logger.debug("User profile updated: {} ({} rows)", user.getLogin(), rows);
+            return rows;
+        } catch (Exception e) {
+            logger.error("Error updating user profile: {}", user.getLogin(), e);
+            throw new RuntimeException("Error updating user", e);
+        }
+    }
 
-            transaction.commit();
-            logger.debug("User removed successfully: {}", user.getLogin());
+    /**
+     * Replaces only the stored password, e.g. to upgrade a legacy value to a hash.
+     */
+    @Override
+    public int updatePassword(User user, String password) {
+        try {
+            int rows = HibernateUtil.inTransaction(session -> {
+                User stored = user.getId() != null ? session.get(User.class, user.getId()) : null;
+                if (stored == null) {
+                    return 0;
+                }
+                stored.setPassword(password);
+                return 1;
+            });
+            invalidateAfterCommit(user);
+            logger.debug("Password updated for user: {}", user.getLogin());
+            return rows;
         } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
+            logger.error("Error updating password for user: {}", user.getLogin(), e);
+            throw new RuntimeException("Error updating password", e);
+        }
+    }
+
+    @Override
+    public void remove(User user) {
+        try {
+            // Hibernate would silently skip deleting a user that was never saved
+            if (user.getId() == null) {
+                throw new IllegalArgumentException("User has no id");
             }
+            Long previousRoleId = HibernateUtil.inTransaction(session -> {
+                Long roleId = currentRoleIds(session, Collections.singletonList(user.getId())).get(user.getId());
+                session.delete(HibernateUtil.hasCurrentSession() ? session.merge(user) : user);
+                return roleId;
+            });
+            invalidateAfterCommit(user);
+            HibernateUtil.afterCommit(() -> membershipCounters.decrement(previousRoleId));
+            HibernateUtil.afterCommit(() -> sessionRegistry.invalidate(user.getId()));
+            logger.debug("User removed successfully: {}", user.getLogin());
+        } catch (Exception e) {
             logger.error("Error removing user: {}", user.getLogin(), e);
             throw new RuntimeException("Error removing user", e);
         }
     }
 
+    /**
+     * Cached copies are dropped once the write is visible to other requests; until
+     * then they still match what the database returns outside this transaction.
+     */
+    private void invalidateAfterCommit(User user) {
+        HibernateUtil.afterCommit(() -> userCache.invalidate(user));
+    }
+
+    /**
+     * Role ids currently stored for the given users, read in the writing transaction
+     * so the membership counters can move each user from its old role.
+     */
+    private Map<Long, Long> currentRoleIds(Session session, Collection<Long> userIds) {
+        Map<Long, Long> roleIds = new HashMap<>();
+        List<Long> ids = userIds.stream().filter(Objects::nonNull).collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return roleIds;
+        }
+
+        Query<Object[]> query = session.createQuery(
+                "SELECT u.id, u.role.id FROM User u WHERE u.id IN (:ids)", Object[].class);
+        query.setParameterList("ids", ids);
+        for (Object[] row : query.list()) {
+            roleIds.put((Long) row[0], (Long) row[1]);
+        }
+        return roleIds;
+    }
+
+    private static Long roleId(User user) {
+        return user.getRole() != null ? user.getRole().getId() : null;
+    }
+
+    /**
+     * IDENTITY ids stop Hibernate from batching inserts, so each chunk goes through
+     * a plain JDBC batch on the session's connection and the keys are copied back.
+     * Chunks run in the request's session when one is bound, so the import does not
+     * hold a second connection; otherwise every chunk commits on its own.
+     */
     @Override
-    public User findById(Long id) {
-        try (Session session = HibernateUtil.openSession()) {
+    public void createAll(Collection<User> users) {
+        if (users == null || users.isEmpty()) {
+            return;
+        }
+
+        for (List<User> chunk : Batches.partition(users, batchSize)) {
+            try {
+                HibernateUtil.inTransaction(session -> {
+                    session.doWork(connection -> {
+                        QueryTrace.record(INSERT_SQL);
+                        try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                            for (User user : chunk) {
+                                bindInsert(ps, user);
+                                ps.addBatch();
+                            }
+                            ps.executeBatch();
 
-            CriteriaBuilder cb = session.getCriteriaBuilder();
-            CriteriaQuery<User> cq = cb.createQuery(User.class);
-            Root<User> root = cq.from(User.class);
-            cq.select(root).where(cb.equal(root.get("id"), id));
+                            try (ResultSet keys = ps.getGeneratedKeys()) {
+                                Iterator<User> iterator = chunk.iterator();
+                                while (keys.next() && iterator.hasNext()) {
+                                    iterator.next().setId(keys.getLong(1));
+                                }
+                            }
+                        }
+                    });
+                    return null;
+                });
+            } catch (Exception e) {
+                logger.error("Error creating batch of {} users", chunk.size(), e);
+                throw new RuntimeException("Error creating users", e);
+            }
+
+            HibernateUtil.afterCommit(() -> {
+                // the JDBC batch bypasses Hibernate, so cached query results would miss these rows
+                HibernateUtil.evictQueryResults();
+                chunk.forEach(userCache::invalidate);
+                chunk.forEach(user -> membershipCounters.increment(roleId(user)));
+            });
+            logger.debug("Batch of {} users created", chunk.size());
+        }
+    }
 
-            return session.createQuery(cq).uniqueResult();
+    /**
+     * Chunks run like {@link #createAll}; in a bound session each user is merged,
+     * as in {@link #update}.
+     */
+    @Override
+    public void updateAll(Collection<User> users) {
+        if (users == null || users.isEmpty()) {
+            return;
+        }
+
+        for (List<User> chunk : Batches.partition(users, batchSize)) {
+            Map<Long, Long> previousRoleIds;
+            try {
+                previousRoleIds = HibernateUtil.inTransaction(session -> {
+                    Map<Long, Long> roleIds = currentRoleIds(session,
+                            chunk.stream().map(User::getId).collect(Collectors.toList()));
+                    boolean bound = HibernateUtil.hasCurrentSession();
+                    for (User user : chunk) {
+                        if (bound) {
+                            session.merge(user);
+                        } else {
+                            session.update(user);
+                        }
+                    }
+                    return roleIds;
+                });
+            } catch (Exception e) {
+                logger.error("Error updating batch of {} users", chunk.size(), e);
+                throw new RuntimeException("Error updating users", e);
+            }
+
+            HibernateUtil.afterCommit(() -> {
+                chunk.forEach(userCache::invalidate);
+                chunk.forEach(user -> membershipCounters.move(previousRoleIds.get(user.getId()), roleId(user)));
+                chunk.forEach(sessionRegistry::refresh);
+            });
+            logger.debug("Batch of {} users updated", chunk.size());
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<User> users) {
+        if (users == null || users.isEmpty()) {
+            return;
+        }
+
+        for (List<User> chunk : Batches.partition(users, batchSize)) {
+            List<Long> ids = chunk.stream().map(User::getId).collect(Collectors.toList());
+            Map<Long, Long> previousRoleIds;
+            try {
+                previousRoleIds = HibernateUtil.inTransaction(session -> {
+                    Map<Long, Long> roleIds = currentRoleIds(session, ids);
+                    session.createQuery("DELETE FROM User u WHERE u.id IN (:ids)")
+                            .setParameterList("ids", ids)
+                            .executeUpdate();
+                    return roleIds;
+                });
+            } catch (Exception e) {
+                logger.error("Error removing batch of {} users", chunk.size(), e);
+                throw new RuntimeException("Error removing users", e);
+            }
+
+            HibernateUtil.afterCommit(() -> {
+                chunk.forEach(userCache::invalidate);
+                previousRoleIds.values().forEach(membershipCounters::decrement);
+                ids.forEach(sessionRegistry::invalidate);
+            });
+            logger.debug("Batch of {} users removed", chunk.size());
+        }
+    }
+
+    private void bindInsert(PreparedStatement ps, User user) throws SQLException {
+        ps.setString(1, user.getLogin());
+        ps.setString(2, user.getPassword());
+        ps.setString(3, user.getEmail());
+        ps.setString(4, user.getFirstName());
+        ps.setString(5, user.getLastName());
+        ps.setObject(6, user.getBirthday());
+        if (user.getRole() != null && user.getRole().getId() != null) {
+            ps.setLong(7, user.getRole().getId());
+        } else {
+            ps.setNull(7, Types.BIGINT);
+        }
+    }
+
+    @Override
+    public User findById(Long id) {
+        if (id == null) {
+            return null;
+        }
+        try {
+            return HibernateUtil.inSession(session -> session.get(User.class, id));
         } catch (Exception e) {
             logger.error("Error finding user by id: {}", id, e);
             throw new RuntimeException("Error finding user by id", e);
@@ -92,26 +374,157 @@ public class HibernateUserDao implements UserDao {
 
     @Override
     public List<User> findAll() {
-        try (Session session = HibernateUtil.openSession()) {
-
-            String hql = "FROM User u LEFT JOIN FETCH u.role ORDER BY u.login";
-            Query<User> query = session.createQuery(hql, User.class);
-            return query.list();
+        try {
+            return HibernateUtil.inSession(session -> {
+                String hql = "FROM User u LEFT JOIN FETCH u.role ORDER BY u.login";
+                Query<User> query = session.createQuery(hql, User.class);
+                return query.list();
+            });
         } catch (Exception e) {
             logger.error("Error finding all users", e);
             throw new RuntimeException("Error finding all users", e);
         }
     }
 
+    /**
+     * Scrolls a forward-only, read-only cursor and evicts each user once the action
+     * has seen it, so the persistence context stays the same size for any row count.
+     */
     @Override
-    public User findByLogin(String login) {
-        try (Session session = HibernateUtil.openSession()) {
+    public void forEach(Consumer<? super User> action) {
+        try {
+            HibernateUtil.inSession(session -> {
+                String hql = "FROM User u LEFT JOIN FETCH u.role ORDER BY u.login";
+                Query<User> query = session.createQuery(hql, User.class);
+                query.setFetchSize(fetchSize);
+                query.setReadOnly(true);
+
+                try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (results.next()) {
+                        User user = (User) results.get(0);
+                        action.accept(user);
+                        session.evict(user);
+                    }
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            logger.error("Error streaming users", e);
+            throw new RuntimeException("Error streaming users", e);
+        }
+    }
+
+    /**
+     * Seeks past {@code afterLogin} on the unique login index, so deep pages cost
+     * the same as the first one; DESC walks backwards and is used for "previous".
+     * Rows are projected to {@link UserSummary}, so no entity is hydrated or
+     * tracked and the password column is never selected.
+     */
+    @Override
+    public List<UserSummary> findSummaryPage(String afterLogin, int limit, SortDirection sort) {
+        try {
+            return HibernateUtil.inSession(session -> {
+                boolean descending = sort == SortDirection.DESC;
+                StringBuilder hql = new StringBuilder(SUMMARY_SELECT);
+                if (afterLogin != null) {
+                    hql.append(descending ? " WHERE u.login < :afterLogin" : " WHERE u.login > :afterLogin");
+                }
+                hql.append(descending ? " ORDER BY u.login DESC" : " ORDER BY u.login ASC");
+
+                Query<UserSummary> query = session.createQuery(hql.toString(), UserSummary.class);
+                if (afterLogin != null) {
+                    query.setParameter("afterLogin", afterLogin);
+                }
+                query.setMaxResults(limit);
+                return query.list();
+            });
+        } catch (Exception e) {
+            logger.error("Error finding user summary page after login: {}", afterLogin, e);
+            throw new RuntimeException("Error finding user page", e);
+        }
+    }
+
+    @Override
+    public void forEachSummary(Consumer<? super UserSummary> action) {
+        try {
+            HibernateUtil.inSession(session -> {
+                Query<UserSummary> query = session.createQuery(SUMMARY_SELECT + " ORDER BY u.login", UserSummary.class);
+                query.setFetchSize(fetchSize);
+
+                try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (results.next()) {
+                        action.accept((UserSummary) results.get(0));
+                    }
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            logger.error("Error streaming user summaries", e);
+            throw new RuntimeException("Error streaming users", e);
+        }
+    }
+
+    /**
+     * Matches a case-insensitive prefix of login, email, first or last name, each
+     * branch seeking the index on that column's lower-cased copy, plus whole words
+     * through the H2 full-text index, so no branch scans the table. Every branch is
+     * capped at {@code limit} rows.
+     */
+    @Override
+    public List<UserSummary> search(String query, int limit) {
+        List<UserSummary> results = new ArrayList<>();
+        if (query == null || query.trim().isEmpty()) {
+            return results;
+        }
+
+        String text = query.trim();
+        try {
+            return HibernateUtil.inSession(session -> {
+                NativeQuery<?> nativeQuery = session.createNativeQuery(SEARCH_SQL);
+                nativeQuery.setParameter("prefix", escapeLike(text.toLowerCase(Locale.ROOT)) + "%");
+                nativeQuery.setParameter("text", text);
+                nativeQuery.setParameter("limit", limit);
+
+                for (Object row : nativeQuery.list()) {
+                    Object[] columns = (Object[]) row;
+                    results.add(new UserSummary(
+                            ((Number) columns[0]).longValue(),
+                            (String) columns[1],
+                            (String) columns[2],
+                            (String) columns[3],
+                            toLocalDate(columns[4]),
+                            (String) columns[5]));
+                }
+                return results;
+            });
+        } catch (Exception e) {
+            logger.error("Error searching users for: {}", text, e);
+            throw new RuntimeException("Error searching users", e);
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 
-            String hql = "FROM User u LEFT JOIN FETCH u.role WHERE u.login = :login";
-            Query<User> query = session.createQuery(hql, User.class);
-            query.setParameter("login", login);
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        }
+        return value != null ? ((Date) value).toLocalDate() : null;
+    }
 
-            return query.uniqueResult();
+    /**
+     * Resolved through the natural-id cache and then the entity cache, so a repeated
+     * login costs no SQL until the user is written.
+     */
+    @Override
+    public User findByLogin(String login) {
+        if (login == null) {
+            return null;
+        }
+        try {
+            return HibernateUtil.inSession(session -> session.bySimpleNaturalId(User.class).load(login));
         } catch (NoResultException e) {
             return null;
         } catch (Exception e) {
@@ -122,29 +535,91 @@ public class HibernateUserDao implements UserDao {
 
     @Override
     public User findByEmail(String email) {
-        try (Session session = HibernateUtil.openSession()) {
-
-            CriteriaBuilder cb = session.getCriteriaBuilder();
-            CriteriaQuery<User> cq = cb.createQuery(User.class);
-            Root<User> root = cq.from(User.class);
-            root.fetch("role");
-            cq.select(root).where(cb.equal(root.get("email"), email));
+        if (email == null) {
+            return null;
+        }
+        try {
+            return HibernateUtil.inSession(session -> {
+                CriteriaBuilder cb = session.getCriteriaBuilder();
+                CriteriaQuery<User> cq = cb.createQuery(User.class);
+                Root<User> root = cq.from(User.class);
+                root.fetch("role");
+                cq.select(root).where(cb.equal(root.get("email"), email));
 
-            return session.createQuery(cq).uniqueResult();
+                return session.createQuery(cq).setCacheable(true).uniqueResult();
+            });
         } catch (Exception e) {
             logger.error("Error finding user by email: {}", email, e);
             throw new RuntimeException("Error finding user by email", e);
         }
     }
 
-    public List<User> findByRole(String roleName) {
-        try (Session session = HibernateUtil.openSession()) {
+    /**
+     * Conflict probe for a rejected write: every user holding the login or the email.
+     */
+    @Override
+    public List<User> findByLoginOrEmail(String login, String email) {
+        try {
+            return HibernateUtil.inSession(session -> {
+                String hql = "FROM User u WHERE u.login = :login OR u.email = :email";
+                Query<User> query = session.createQuery(hql, User.class);
+                query.setParameter("login", login);
+                query.setParameter("email", email);
 
-            String hql = "FROM User u JOIN FETCH u.role r WHERE r.name = :roleName ORDER BY u.login";
-            Query<User> query = session.createQuery(hql, User.class);
-            query.setParameter("roleName", roleName);
+                return query.list();
+            });
+        } catch (Exception e) {
+            logger.error("Error finding users by login: {} or email: {}", login, email, e);
+            throw new RuntimeException("Error finding users by login or email", e);
+        }
+    }
+
+    /**
+     * Returns which of the given logins are taken, one IN query per batch of values,
+     * so an import checks a whole chunk at once instead of probing row by row.
+     */
+    @Override
+    public Set<String> findExistingLogins(Collection<String> logins) {
+        return findExisting("login", logins);
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return findExisting("email", emails);
+    }
+
+    private Set<String> findExisting(String property, Collection<String> values) {
+        Set<String> existing = new HashSet<>();
+        if (values == null || values.isEmpty()) {
+            return existing;
+        }
+
+        try {
+            return HibernateUtil.inSession(session -> {
+                String hql = "SELECT u." + property + " FROM User u WHERE u." + property + " IN (:values)";
+                for (List<String> chunk : Batches.partition(values, batchSize)) {
+                    Query<String> query = session.createQuery(hql, String.class);
+                    query.setParameterList("values", chunk);
+                    existing.addAll(query.list());
+                }
+                return existing;
+            });
+        } catch (Exception e) {
+            logger.error("Error finding existing users by {}", property, e);
+            throw new RuntimeException("Error finding existing users", e);
+        }
+    }
+
+    public List<User> findByRole(String roleName) {
+        try {
+            return HibernateUtil.inSession(session -> {
+                String hql = "FROM User u JOIN FETCH u.role r WHERE r.name = :roleName ORDER BY u.login";
+                Query<User> query = session.createQuery(hql, User.class);
+                query.setParameter("roleName", roleName);
+                query.setCacheable(true);
 
-            return query.list();
+                return query.list();
+            });
         } catch (Exception e) {
             logger.error("Error finding users by role: {}", roleName, e);
             throw new RuntimeException("Error finding users by role", e);
@@ -0,0 +1,157 @@
+package com.example.dao;
+
+import com.example.metrics.DaoMetrics;
+import com.example.metrics.QueryTrace;
+import com.example.util.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Dynamic proxy that times every call of a DAO interface, counts the rows it
+ * returned or touched, and records both in {@link DaoMetrics} under
+ * {@code TargetClass.method}. For streaming methods the time spent inside the
+ * caller's consumer is left out, so only the query and the iteration are timed.
+ * <p>
+ * Calls slower than {@code db.slowQuery.thresholdMillis} are written to the
+ * {@value #SLOW_QUERY_LOGGER} logger with the SQL they prepared and the Java types
+ * of their arguments, with collection sizes. Argument values are never logged,
+ * so neither are passwords or other bound values.
+ */
+public class InstrumentedDao implements InvocationHandler {
+    private static final String SLOW_QUERY_LOGGER = "com.example.slowquery";
+    private static final Logger slowQueryLogger = LoggerFactory.getLogger(SLOW_QUERY_LOGGER);
+    private static final long slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(
+            DatabaseManager.getIntProperty("db.slowQuery.thresholdMillis", 200));
+
+    private final Object target;
+    private final String prefix;
+    private final DaoMetrics metrics = DaoMetrics.getInstance();
+
+    private InstrumentedDao(Object target) {
+        this.target = target;
+        this.prefix = target.getClass().getSimpleName() + ".";
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T wrap(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new InstrumentedDao(target));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return invokeTarget(method, args);
+        }
+
+        // rows handed to a streaming consumer, and the nanoseconds the consumer spent on them
+        long[] streamed = new long[2];
+        Object[] callArgs = countStreamedRows(args, streamed);
+        QueryTrace trace = QueryTrace.start();
+        long start = System.nanoTime();
+        boolean failed = true;
+        Object result = null;
+        try {
+            result = invokeTarget(method, callArgs);
+            failed = false;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start - streamed[1];
+            long rows = failed ? 0 : rowCount(method, args, result) + streamed[0];
+            String operation = prefix + method.getName();
+            metrics.operation(operation).record(elapsed, rows, failed);
+            if (elapsed >= slowThresholdNanos) {
+                slowQueryLogger.warn("{} took {} ms, rows={}{}, argTypes=({}), sql={}",
+                        operation, TimeUnit.NANOSECONDS.toMillis(elapsed), rows, failed ? ", failed" : "",
+                        argumentTypes(args), trace.describe());
+            }
+            trace.finish();
+        }
+    }
+
+    private Object invokeTarget(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Streaming methods hand rows to a consumer instead of returning them, so the
+     * consumer is wrapped to count what passes through and to time itself, which
+     * the caller then subtracts from the call.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object[] countStreamedRows(Object[] args, long[] counter) {
+        if (args == null) {
+            return null;
+        }
+        Object[] wrapped = args.clone();
+        for (int i = 0; i < wrapped.length; i++) {
+            if (wrapped[i] instanceof Consumer) {
+                Consumer<Object> consumer = (Consumer<Object>) wrapped[i];
+                wrapped[i] = (Consumer<Object>) row -> {
+                    counter[0]++;
+                    long start = System.nanoTime();
+                    try {
+                        consumer.accept(row);
+                    } finally {
+                        counter[1] += System.nanoTime() - start;
+                    }
+                };
+            }
+        }
+        return wrapped;
+    }
+
+    /**
+     * Rows returned for reads and rows written for writes: collection sizes, update
+     * counts, or one for a single entity.
+     */
+    private static long rowCount(Method method, Object[] args, Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Map) {
+            return ((Map<?, ?>) result).size();
+        }
+        if (result instanceof Integer || result instanceof Long) {
+            return ((Number) result).longValue();
+        }
+        if (method.getReturnType() == void.class) {
+            if (args != null && args.length == 1 && args[0] instanceof Collection) {
+                return ((Collection<?>) args[0]).size();
+            }
+            return args != null && args.length == 1 && !(args[0] instanceof Consumer) ? 1 : 0;
+        }
+        return result != null ? 1 : 0;
+    }
+
+    private static String argumentTypes(Object[] args) {
+        StringJoiner types = new StringJoiner(", ");
+        if (args != null) {
+            for (Object arg : args) {
+                if (arg == null) {
+                    types.add("null");
+                } else if (arg instanceof Collection) {
+                    types.add(arg.getClass().getSimpleName() + "[" + ((Collection<?>) arg).size() + "]");
+                } else if (arg instanceof Consumer) {
+                    types.add("Consumer");
+                } else {
+                    types.add(arg.getClass().getSimpleName());
+                }
+            }
+        }
+        return types.toString();
+    }
+}
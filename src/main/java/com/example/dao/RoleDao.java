@@ -2,9 +2,12 @@ package com.example.dao;
 
 import com.example.model.Role;
 
+import java.util.Map;
+
 public interface RoleDao extends Dao<Role> {
     void create(Role role);
     void update(Role role);
     void remove(Role role);
     Role findByName(String name);
+    Map<String, Long> countUsersByRole();
 }
@@ -0,0 +1,12 @@
+package com.example.dao;
+
+import java.util.function.Consumer;
+
+/**
+ * Pushes rows to the caller one at a time while the cursor is open, so readers
+ * never hold more than the current row.
+ */
+@FunctionalInterface
+public interface RowSource<E> {
+    void forEach(Consumer<? super E> action);
+}
@@ -0,0 +1,10 @@
+package com.example.dao;
+
+public enum SortDirection {
+    ASC,
+    DESC;
+
+    public static SortDirection fromString(String value) {
+        return "desc".equalsIgnoreCase(value) ? DESC : ASC;
+    }
+}
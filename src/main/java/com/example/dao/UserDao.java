@@ -1,7 +1,11 @@
 package com.example.dao;
 
 import com.example.model.User;
+import com.example.model.UserSummary;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface UserDao extends Dao<User> {
     void create(User user);
@@ -10,4 +14,12 @@ public interface UserDao extends Dao<User> {
     List<User> findAll();
     User findByLogin(String login);
     User findByEmail(String email);
+    List<UserSummary> findSummaryPage(String afterLogin, int limit, SortDirection sort);
+    void forEachSummary(Consumer<? super UserSummary> action);
+    List<UserSummary> search(String query, int limit);
+    List<User> findByLoginOrEmail(String login, String email);
+    int updateProfile(User user, boolean updatePassword);
+    int updatePassword(User user, String password);
+    Set<String> findExistingLogins(Collection<String> logins);
+    Set<String> findExistingEmails(Collection<String> emails);
 }
@@ -0,0 +1,16 @@
+package com.example.exceptions;
+
+import java.util.List;
+
+public class DuplicateUserException extends ValidationException {
+    private final List<String> errors;
+
+    public DuplicateUserException(List<String> errors) {
+        super(String.join("; ", errors));
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.exceptions;
+
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Exception e) {
+        super(message, e);
+    }
+}
@@ -1,31 +0,0 @@
-package com.example.filter;
-
-import com.example.util.SessionUtils;
-import javax.servlet.FilterChain;
-import javax.servlet.ServletException;
-import javax.servlet.ServletRequest;
-import javax.servlet.ServletResponse;
-import javax.servlet.annotation.WebFilter;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
-import javax.servlet.Filter;
-import java.io.IOException;
-
-@WebFilter(filterName = "AuthenticationFilter", urlPatterns = {"/user/*", "/admin/*"})
-public class AuthenticationFilter implements Filter {
-
-    @Override
-    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
-            throws IOException, ServletException {
-
-        HttpServletRequest httpRequest = (HttpServletRequest) request;
-        HttpServletResponse httpResponse = (HttpServletResponse) response;
-
-        if (!SessionUtils.isLoggedIn(httpRequest)) {
-            httpResponse.sendRedirect(httpRequest.getContextPath() + "/login");
-            return;
-        }
-
-        chain.doFilter(request, response);
-    }
-}
\ No newline at end of file
@@ -1,39 +0,0 @@
-package com.example.filter;
-
-import com.example.util.SessionUtils;
-
-import javax.servlet.FilterConfig;
-import javax.servlet.Filter;
-import javax.servlet.ServletException;
-import javax.servlet.ServletRequest;
-import javax.servlet.ServletResponse;
-import javax.servlet.FilterChain;
-import javax.servlet.annotation.WebFilter;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
-import java.io.IOException;
-
-@WebFilter(filterName = "AuthorizationFilter", urlPatterns = {"/admin/*"})
-public class AuthorizationFilter implements Filter {
-    @Override
-    public void init(FilterConfig filterConfig) throws ServletException {
-    }
-
-    @Override
-    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
-            throws IOException, ServletException {
-
-        HttpServletRequest httpRequest = (HttpServletRequest) request;
-        HttpServletResponse httpResponse = (HttpServletResponse) response;
-
-        if (!SessionUtils.isAdmin(httpRequest)) {
-            httpResponse.sendError(HttpServletResponse.SC_FORBIDDEN, "Access denied - Admin role required");
-            return;
-        }
-        chain.doFilter(request, response);
-    }
-
-    @Override
-    public void destroy() {
-    }
-}
\ No newline at end of file
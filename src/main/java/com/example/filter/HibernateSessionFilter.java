@@ -0,0 +1,71 @@
+package com.example.filter;
+
+import com.example.util.HibernateUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Binds one Hibernate session to each request, so every DAO call made while
+ * handling it (including JSP rendering) shares one connection, one transaction
+ * and one persistence context. The transaction commits when the chain returns
+ * normally and rolls back when it throws.
+ * <p>
+ * Paths listed in the {@code excludedPaths} init parameter get no session, for
+ * work such as imports that must commit in chunks of its own.
+ */
+public class HibernateSessionFilter implements Filter {
+    private static final Logger logger = LoggerFactory.getLogger(HibernateSessionFilter.class);
+
+    private Set<String> excludedPaths = Collections.emptySet();
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+        String paths = filterConfig.getInitParameter("excludedPaths");
+        if (paths != null) {
+            excludedPaths = Arrays.stream(paths.split(","))
+                    .map(String::trim)
+                    .filter(path -> !path.isEmpty())
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        if (HibernateUtil.hasCurrentSession() ||
+                excludedPaths.contains(((HttpServletRequest) request).getServletPath())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HibernateUtil.bindSession();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            try {
+                HibernateUtil.unbindSession(completed);
+            } catch (RuntimeException e) {
+                logger.error("Error completing request transaction", e);
+                if (completed) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.filter;
+
+import com.example.security.LoginRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Turns away sign-in attempts over the per-IP or per-login limit with 429 before
+ * AuthController runs, so throttled requests never touch the database.
+ */
+public class LoginRateLimitFilter implements Filter {
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimitFilter.class);
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+
+    private final LoginRateLimiter rateLimiter = LoginRateLimiter.getInstance();
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+        if ("POST".equals(httpRequest.getMethod())) {
+            String login = httpRequest.getParameter("login");
+            if (!rateLimiter.tryAcquire(httpRequest.getRemoteAddr(), login)) {
+                logger.warn("Throttled sign-in attempt for login {} from {}", login, httpRequest.getRemoteAddr());
+                httpResponse.setStatus(SC_TOO_MANY_REQUESTS);
+                httpResponse.setHeader("Retry-After", "60");
+                request.setAttribute("error", "Too many sign-in attempts, please wait a minute and try again");
+                request.setAttribute("login", login);
+                request.getRequestDispatcher("/WEB-INF/jsp/login.jsp").forward(request, response);
+                return;
+            }
+        }
+
+        chain.doFilter(request, response);
+    }
+}
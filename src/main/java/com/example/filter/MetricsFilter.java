@@ -0,0 +1,36 @@
+package com.example.filter;
+
+import com.example.metrics.RequestMetrics;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Times every request and records it under its servlet path and final status;
+ * a request that ends in an exception is counted as 500.
+ */
+public class MetricsFilter implements Filter {
+    private final RequestMetrics requestMetrics = RequestMetrics.getInstance();
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+                    : ((HttpServletResponse) response).getStatus();
+            requestMetrics.record(((HttpServletRequest) request).getServletPath(), status, System.nanoTime() - start);
+        }
+    }
+}
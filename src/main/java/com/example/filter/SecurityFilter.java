@@ -0,0 +1,55 @@
+package com.example.filter;
+
+import com.example.model.UserPrincipal;
+import com.example.security.RouteTable;
+import com.example.util.SessionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * The single access check for every request: resolves the principal once (the
+ * controllers read it back from the request attribute) and applies the rule that
+ * {@link RouteTable} holds for the path. Signed-out users are sent to the login
+ * page; signed-in users without the required role get 403.
+ */
+public class SecurityFilter implements Filter {
+    private static final Logger logger = LoggerFactory.getLogger(SecurityFilter.class);
+
+    private final RouteTable routeTable = RouteTable.getInstance();
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+        String path = httpRequest.getServletPath();
+        if (httpRequest.getPathInfo() != null) {
+            path += httpRequest.getPathInfo();
+        }
+        RouteTable.Route route = routeTable.match(path);
+        UserPrincipal principal = SessionUtils.getCurrentUser(httpRequest);
+
+        if (!route.permits(principal)) {
+            if (principal == null) {
+                httpResponse.sendRedirect(httpRequest.getContextPath() + "/login");
+            } else {
+                logger.warn("User {} denied access to {} (requires {})", principal.getLogin(), path, route.getRequirement());
+                httpResponse.sendError(HttpServletResponse.SC_FORBIDDEN, "Access denied - " + route.getRequirement() + " role required");
+            }
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.listener;
+
+import com.example.dao.HibernateRoleDao;
+import com.example.security.LoginRateLimiter;
+import com.example.security.PasswordHasher;
+import com.example.security.TokenRevocationList;
+import com.example.security.TokenService;
+import com.example.service.UserImportService;
+import com.example.util.ConnectionPoolMonitor;
+import com.example.util.DatabaseManager;
+import com.example.util.HibernateUtil;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@WebListener
+public class ApplicationLifecycleListener implements ServletContextListener {
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationLifecycleListener.class);
+
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        DatabaseManager.migrate("migrations/fulltext.sql");
+        // calibrates the hash cost now rather than on the first login
+        PasswordHasher.getInstance();
+        HibernateRoleDao roleDao = new HibernateRoleDao();
+        roleDao.refreshRegistry();
+        roleDao.reconcileUserCounts();
+
+        int reconcileSeconds = DatabaseManager.getIntProperty("stats.roleCounts.reconcileSeconds", 300);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "maintenance-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                roleDao.reconcileUserCounts();
+            } catch (RuntimeException e) {
+                logger.warn("Role count reconciliation failed, keeping live counts", e);
+            }
+        }, reconcileSeconds, reconcileSeconds, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(() -> LoginRateLimiter.getInstance().evictIdle(), 1, 1, TimeUnit.MINUTES);
+        scheduler.scheduleWithFixedDelay(() -> ConnectionPoolMonitor.getInstance().reportLeaks(), 10, 10, TimeUnit.SECONDS);
+        long tokenTtlMillis = TokenService.getInstance().getTtlMillis();
+        scheduler.scheduleWithFixedDelay(() -> TokenRevocationList.getInstance().purgeExpired(tokenTtlMillis),
+                1, 1, TimeUnit.MINUTES);
+        logger.info("Application started");
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        PasswordHasher.getInstance().shutdown();
+        UserImportService.shutdown();
+        if (HibernateUtil.getSessionFactory() != null) {
+            Statistics statistics = HibernateUtil.getStatistics();
+            logger.info("Second-level cache hits: {}, misses: {}; natural-id hits: {}, misses: {}; query cache hits: {}, misses: {}",
+                    statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                    statistics.getNaturalIdCacheHitCount(), statistics.getNaturalIdCacheMissCount(),
+                    statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+        }
+        HibernateUtil.closeSessionFactory();
+        DatabaseManager.shutdown();
+        logger.info("Application stopped");
+    }
+}
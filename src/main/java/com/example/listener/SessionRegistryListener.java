@@ -0,0 +1,37 @@
+package com.example.listener;
+
+import com.example.security.SessionRegistry;
+
+import javax.servlet.annotation.WebListener;
+import javax.servlet.http.HttpSessionAttributeListener;
+import javax.servlet.http.HttpSessionBindingEvent;
+import javax.servlet.http.HttpSessionEvent;
+import javax.servlet.http.HttpSessionIdListener;
+import javax.servlet.http.HttpSessionListener;
+
+/**
+ * Keeps the {@link SessionRegistry} in step with the container: sessions are
+ * dropped on expiry, on {@code invalidate()} and when the principal attribute is
+ * removed, and re-keyed when their id changes.
+ */
+@WebListener
+public class SessionRegistryListener implements HttpSessionListener, HttpSessionIdListener,
+        HttpSessionAttributeListener {
+
+    @Override
+    public void sessionDestroyed(HttpSessionEvent event) {
+        SessionRegistry.getInstance().unregister(event.getSession().getId());
+    }
+
+    @Override
+    public void sessionIdChanged(HttpSessionEvent event, String oldSessionId) {
+        SessionRegistry.getInstance().changeSessionId(oldSessionId, event.getSession());
+    }
+
+    @Override
+    public void attributeRemoved(HttpSessionBindingEvent event) {
+        if (SessionRegistry.PRINCIPAL_ATTRIBUTE.equals(event.getName())) {
+            SessionRegistry.getInstance().unregister(event.getSession().getId());
+        }
+    }
+}
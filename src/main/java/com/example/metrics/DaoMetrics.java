@@ -0,0 +1,57 @@
+package com.example.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Timing, row and error counts per DAO operation, named {@code DaoClass.method}.
+ */
+public class DaoMetrics {
+    private static final DaoMetrics instance = new DaoMetrics();
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    protected DaoMetrics() {
+    }
+
+    public static DaoMetrics getInstance() {
+        return instance;
+    }
+
+    public Operation operation(String name) {
+        Operation operation = operations.get(name);
+        return operation != null ? operation : operations.computeIfAbsent(name, n -> new Operation());
+    }
+
+    public void forEach(BiConsumer<String, Operation> action) {
+        operations.forEach(action);
+    }
+
+    public static final class Operation {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        public void record(long elapsedNanos, long rowCount, boolean failed) {
+            latency.recordNanos(elapsedNanos);
+            rows.add(rowCount);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+    }
+}
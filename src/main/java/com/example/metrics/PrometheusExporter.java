@@ -0,0 +1,177 @@
+package com.example.metrics;
+
+import com.example.cache.UserCache;
+import com.example.security.LoginRateLimiter;
+import com.example.security.PasswordHasher;
+import com.example.security.RouteTable;
+import com.example.security.SessionRegistry;
+import com.example.util.ConnectionPoolMonitor;
+import com.example.util.DatabaseManager;
+import com.example.util.HibernateUtil;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.hibernate.stat.Statistics;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the application metrics in the Prometheus text exposition format.
+ * Request latency is a summary per path and status with p50, p99 and p99.9;
+ * request rates come from its {@code _count} counter, e.g.
+ * {@code rate(http_server_requests_seconds_count[1m])}.
+ */
+public class PrometheusExporter {
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.99", "0.999"};
+    private static final double MICROS_PER_SECOND = 1_000_000.0;
+
+    public void write(Writer out) throws IOException {
+        writeRequests(out);
+        writeDaoOperations(out);
+        writePool(out);
+        writeSecurity(out);
+        writeCaches(out);
+    }
+
+    private void writeRequests(Writer out) throws IOException {
+        StringBuilder samples = new StringBuilder();
+        RequestMetrics.getInstance().forEach((path, status, histogram) ->
+                appendSummary(samples, "http_server_requests_seconds",
+                        "path=\"" + escape(path) + "\",status=\"" + status + "\"", histogram));
+
+        header(out, "http_server_requests_seconds", "summary", "Request latency by servlet path and status.");
+        out.write(samples.toString());
+    }
+
+    private void writeDaoOperations(Writer out) throws IOException {
+        StringBuilder latency = new StringBuilder();
+        StringBuilder rows = new StringBuilder();
+        StringBuilder errors = new StringBuilder();
+        DaoMetrics.getInstance().forEach((name, operation) -> {
+            String labels = "operation=\"" + escape(name) + "\"";
+            appendSummary(latency, "dao_operation_seconds", labels, operation.getLatency());
+            appendSample(rows, "dao_operation_rows_total", labels, operation.getRows());
+            appendSample(errors, "dao_operation_errors_total", labels, operation.getErrors());
+        });
+
+        header(out, "dao_operation_seconds", "summary", "DAO call latency by operation.");
+        out.write(latency.toString());
+        header(out, "dao_operation_rows_total", "counter", "Rows returned or written by DAO operation.");
+        out.write(rows.toString());
+        header(out, "dao_operation_errors_total", "counter", "DAO calls that threw, by operation.");
+        out.write(errors.toString());
+    }
+
+    private void writePool(Writer out) throws IOException {
+        BasicDataSource dataSource = DatabaseManager.getDataSource();
+        ConnectionPoolMonitor monitor = ConnectionPoolMonitor.getInstance();
+        gauge(out, "db_pool_active_connections", "Connections borrowed from the pool.", dataSource.getNumActive());
+        gauge(out, "db_pool_idle_connections", "Idle connections in the pool.", dataSource.getNumIdle());
+        gauge(out, "db_pool_max_connections", "Maximum connections the pool opens.", dataSource.getMaxTotal());
+        gauge(out, "db_pool_waiting_threads", "Threads waiting to borrow a connection.", monitor.getWaiting());
+        StringBuilder wait = new StringBuilder();
+        appendSummary(wait, "db_pool_borrow_wait_seconds", "pool=\"default\"", monitor.getBorrowWait());
+        header(out, "db_pool_borrow_wait_seconds", "summary", "Time spent waiting to borrow a connection.");
+        out.write(wait.toString());
+        counter(out, "db_pool_borrow_failures_total", "Borrows that failed or timed out.", monitor.getBorrowFailures());
+        counter(out, "db_pool_leaks_reported_total", "Connections reported as held past the leak threshold.", monitor.getLeaksReported());
+        header(out, "db_statement_pool_requests_total", "counter", "Prepared statement requests by whether the pool had one open.");
+        sample(out, "db_statement_pool_requests_total", "result=\"hit\"", monitor.getStatementHits());
+        sample(out, "db_statement_pool_requests_total", "result=\"miss\"", monitor.getStatementMisses());
+        counter(out, "db_statement_pool_evictions_total", "Pooled prepared statements closed to make room.", monitor.getStatementEvictions());
+    }
+
+    private void writeSecurity(Writer out) throws IOException {
+        PasswordHasher hasher = PasswordHasher.getInstance();
+        gauge(out, "password_hasher_queue_depth", "Password verifications waiting for a hashing thread.", hasher.getQueueDepth());
+        gauge(out, "password_hasher_queue_capacity", "Capacity of the password verification queue.", hasher.getQueueCapacity());
+        gauge(out, "password_hasher_active_threads", "Hashing threads currently busy.", hasher.getActiveCount());
+        counter(out, "password_hasher_verifications_total", "Password verifications run.", hasher.getVerifications());
+        counter(out, "password_hasher_rejections_total", "Password verifications refused because the queue was full.", hasher.getRejections());
+
+        LoginRateLimiter limiter = LoginRateLimiter.getInstance();
+        header(out, "login_attempts_total", "counter", "Sign-in attempts by rate limiter decision.");
+        sample(out, "login_attempts_total", "result=\"allowed\"", limiter.getAllowed());
+        sample(out, "login_attempts_total", "result=\"throttled_ip\"", limiter.getThrottledByIp());
+        sample(out, "login_attempts_total", "result=\"throttled_login\"", limiter.getThrottledByLogin());
+        gauge(out, "login_rate_limiter_tracked_keys", "IPs and logins with a live token bucket.", limiter.getTrackedKeys());
+
+        header(out, "security_route_decisions_total", "counter", "Access decisions by route rule.");
+        for (RouteTable.Route route : RouteTable.getInstance().getRoutes()) {
+            String labels = "route=\"" + escape(route.getPattern()) + "\",requirement=\"" + escape(route.getRequirement()) + "\"";
+            sample(out, "security_route_decisions_total", labels + ",decision=\"allowed\"", route.getAllowed());
+            sample(out, "security_route_decisions_total", labels + ",decision=\"denied\"", route.getDenied());
+        }
+        gauge(out, "http_sessions_signed_in", "HTTP sessions with a signed-in user on this node.", SessionRegistry.getInstance().size());
+    }
+
+    private void writeCaches(Writer out) throws IOException {
+        UserCache userCache = UserCache.getInstance();
+        header(out, "user_cache_requests_total", "counter", "User cache lookups by result.");
+        sample(out, "user_cache_requests_total", "result=\"hit\"", userCache.getHits());
+        sample(out, "user_cache_requests_total", "result=\"negative_hit\"", userCache.getNegativeHits());
+        sample(out, "user_cache_requests_total", "result=\"miss\"", userCache.getMisses());
+        counter(out, "user_cache_evictions_total", "Users evicted from the cache by size.", userCache.getEvictions());
+        counter(out, "user_cache_invalidations_total", "Users dropped from the cache after a write.", userCache.getInvalidations());
+        gauge(out, "user_cache_size", "Users held in the cache.", userCache.getSize());
+
+        if (HibernateUtil.getSessionFactory() == null) {
+            return;
+        }
+        Statistics statistics = HibernateUtil.getStatistics();
+        header(out, "hibernate_cache_requests_total", "counter", "Hibernate cache lookups by cache and result.");
+        sample(out, "hibernate_cache_requests_total", "cache=\"second_level\",result=\"hit\"", statistics.getSecondLevelCacheHitCount());
+        sample(out, "hibernate_cache_requests_total", "cache=\"second_level\",result=\"miss\"", statistics.getSecondLevelCacheMissCount());
+        sample(out, "hibernate_cache_requests_total", "cache=\"natural_id\",result=\"hit\"", statistics.getNaturalIdCacheHitCount());
+        sample(out, "hibernate_cache_requests_total", "cache=\"natural_id\",result=\"miss\"", statistics.getNaturalIdCacheMissCount());
+        sample(out, "hibernate_cache_requests_total", "cache=\"query\",result=\"hit\"", statistics.getQueryCacheHitCount());
+        sample(out, "hibernate_cache_requests_total", "cache=\"query\",result=\"miss\"", statistics.getQueryCacheMissCount());
+        counter(out, "hibernate_queries_total", "HQL and native queries executed.", statistics.getQueryExecutionCount());
+        counter(out, "hibernate_sessions_opened_total", "Hibernate sessions opened.", statistics.getSessionOpenCount());
+        counter(out, "hibernate_transactions_total", "Hibernate transactions completed.", statistics.getTransactionCount());
+    }
+
+    private static void appendSummary(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        long[] values = histogram.percentiles(QUANTILES);
+        for (int i = 0; i < QUANTILES.length; i++) {
+            appendSample(out, name, labels + ",quantile=\"" + QUANTILE_LABELS[i] + "\"", values[i] / MICROS_PER_SECOND);
+        }
+        appendSample(out, name + "_sum", labels, histogram.getSumMicros() / MICROS_PER_SECOND);
+        appendSample(out, name + "_count", labels, histogram.getCount());
+    }
+
+    private static void gauge(Writer out, String name, String help, double value) throws IOException {
+        header(out, name, "gauge", help);
+        sample(out, name, null, value);
+    }
+
+    private static void counter(Writer out, String name, String help, double value) throws IOException {
+        header(out, name, "counter", help);
+        sample(out, name, null, value);
+    }
+
+    private static void header(Writer out, String name, String type, String help) throws IOException {
+        out.write("# HELP " + name + " " + help + "\n");
+        out.write("# TYPE " + name + " " + type + "\n");
+    }
+
+    private static void sample(Writer out, String name, String labels, double value) throws IOException {
+        StringBuilder line = new StringBuilder();
+        appendSample(line, name, labels, value);
+        out.write(line.toString());
+    }
+
+    private static void appendSample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ');
+        out.append(value == Math.rint(value) && !Double.isInfinite(value) ? Long.toString((long) value) : Double.toString(value));
+        out.append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
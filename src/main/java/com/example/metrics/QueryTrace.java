@@ -0,0 +1,80 @@
+package com.example.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The SQL statements run on this thread during one DAO call, so a slow call can
+ * be logged together with its statements. Statements are recorded as prepared,
+ * with {@code ?} placeholders, so no bound value is ever captured. Nested DAO
+ * calls hand their statements up to the enclosing one when they finish.
+ */
+public final class QueryTrace {
+    private static final int MAX_STATEMENTS = 20;
+    private static final ThreadLocal<QueryTrace> current = new ThreadLocal<>();
+
+    private final QueryTrace parent;
+    private final Map<String, Integer> statements = new LinkedHashMap<>();
+    private int dropped;
+
+    private QueryTrace(QueryTrace parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Starts collecting for the calling thread; pair with {@link #finish()} in a finally block.
+     */
+    public static QueryTrace start() {
+        QueryTrace trace = new QueryTrace(current.get());
+        current.set(trace);
+        return trace;
+    }
+
+    /**
+     * Notes that {@code sql} was prepared; does nothing outside a DAO call.
+     */
+    public static void record(String sql) {
+        QueryTrace trace = current.get();
+        if (trace != null) {
+            trace.add(sql, 1);
+        }
+    }
+
+    public void finish() {
+        if (parent != null) {
+            statements.forEach(parent::add);
+            parent.dropped += dropped;
+            current.set(parent);
+        } else {
+            current.remove();
+        }
+    }
+
+    /**
+     * The distinct statements with how often each was prepared, e.g. {@code [select ... where id=? (x3)]}.
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder("[");
+        statements.forEach((sql, times) -> {
+            if (description.length() > 1) {
+                description.append("; ");
+            }
+            description.append(sql);
+            if (times > 1) {
+                description.append(" (x").append(times).append(')');
+            }
+        });
+        if (dropped > 0) {
+            description.append("; ... ").append(dropped).append(" more");
+        }
+        return description.append(']').toString();
+    }
+
+    private void add(String sql, int times) {
+        if (statements.containsKey(sql) || statements.size() < MAX_STATEMENTS) {
+            statements.merge(sql, times, Integer::sum);
+        } else {
+            dropped += times;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.metrics;
+
+import com.example.util.DatabaseManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latency histograms per servlet path and response status. After the first
+ * request of a path and status, recording is a map lookup plus an array read.
+ * <p>
+ * Unmapped URLs reach the default servlet with their full path, so at most
+ * {@code metrics.maxPaths} paths get their own series and the rest are counted
+ * under {@value #OTHER_PATH}.
+ */
+public class RequestMetrics {
+    public static final String OTHER_PATH = "other";
+    private static final int MIN_STATUS = 100;
+    private static final int MAX_STATUS = 599;
+
+    private static final RequestMetrics instance = new RequestMetrics();
+
+    private final int maxPaths = DatabaseManager.getIntProperty("metrics.maxPaths", 200);
+    private final Map<String, AtomicReferenceArray<LatencyHistogram>> byPath = new ConcurrentHashMap<>();
+
+    protected RequestMetrics() {
+    }
+
+    public static RequestMetrics getInstance() {
+        return instance;
+    }
+
+    public void record(String path, int status, long elapsedNanos) {
+        if (status < MIN_STATUS || status > MAX_STATUS) {
+            status = 500;
+        }
+        AtomicReferenceArray<LatencyHistogram> byStatus = statuses(path);
+        int index = status - MIN_STATUS;
+        LatencyHistogram histogram = byStatus.get(index);
+        if (histogram == null) {
+            byStatus.compareAndSet(index, null, new LatencyHistogram());
+            histogram = byStatus.get(index);
+        }
+        histogram.recordNanos(elapsedNanos);
+    }
+
+    /**
+     * Visits every recorded series as (path, status) and its histogram.
+     */
+    public void forEach(SeriesVisitor visitor) {
+        byPath.forEach((path, byStatus) -> {
+            for (int i = 0; i < byStatus.length(); i++) {
+                LatencyHistogram histogram = byStatus.get(i);
+                if (histogram != null) {
+                    visitor.visit(path, MIN_STATUS + i, histogram);
+                }
+            }
+        });
+    }
+
+    private AtomicReferenceArray<LatencyHistogram> statuses(String path) {
+        AtomicReferenceArray<LatencyHistogram> byStatus = byPath.get(path);
+        if (byStatus != null) {
+            return byStatus;
+        }
+        String key = byPath.size() < maxPaths ? path : OTHER_PATH;
+        return byPath.computeIfAbsent(key, k -> new AtomicReferenceArray<>(MAX_STATUS - MIN_STATUS + 1));
+    }
+
+    @FunctionalInterface
+    public interface SeriesVisitor {
+        void visit(String path, int status, LatencyHistogram histogram);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.model;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import. Only the first {@code maxReportedErrors} rejected
+ * rows are kept with their messages; the rest are only counted.
+ */
+@Getter
+@ToString
+public class ImportReport {
+    private final int maxReportedErrors;
+    private final List<RowError> errors = new ArrayList<>();
+    private int totalRows;
+    private int importedRows;
+    private int rejectedRows;
+    private long elapsedMillis;
+
+    public ImportReport(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public void addRows(int rows) {
+        totalRows += rows;
+    }
+
+    public void addImported(int rows) {
+        importedRows += rows;
+    }
+
+    public void reject(int line, String login, List<String> messages) {
+        rejectedRows++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new RowError(line, login, messages));
+        }
+    }
+
+    public void finish(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    public boolean isErrorsTruncated() {
+        return rejectedRows > errors.size();
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis > 0 ? totalRows * 1000L / elapsedMillis : totalRows;
+    }
+
+    @Getter
+    @ToString
+    public static class RowError {
+        private final int line;
+        private final String login;
+        private final List<String> messages;
+
+        public RowError(int line, String login, List<String> messages) {
+            this.line = line;
+            this.login = login;
+            this.messages = messages;
+        }
+    }
+}
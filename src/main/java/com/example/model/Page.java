@@ -0,0 +1,34 @@
+package com.example.model;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * One keyset page: the cursors are the sort keys of the first and last row,
+ * so the next query seeks from them instead of skipping an offset.
+ */
+@Getter
+@ToString
+public class Page<T> {
+    private final List<T> items;
+    private final String prevCursor;
+    private final String nextCursor;
+    private final int size;
+
+    public Page(List<T> items, String prevCursor, String nextCursor, int size) {
+        this.items = items;
+        this.prevCursor = prevCursor;
+        this.nextCursor = nextCursor;
+        this.size = size;
+    }
+
+    public boolean isHasPrev() {
+        return prevCursor != null;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
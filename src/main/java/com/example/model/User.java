@@ -7,6 +7,11 @@ import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import lombok.NoArgsConstructor;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import javax.persistence.*;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
@@ -17,6 +22,8 @@ import java.util.Set;
 
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 @Getter
 @Setter
 @ToString
@@ -28,6 +35,7 @@ public class User {
     private Long id;
     @NotBlank(message = "Login is required")
     @Size(min = 3, max = 50, message = "Login must be between 3 and 50 characters")
+    @NaturalId(mutable = true)
     @Column(name = "login", nullable = false, unique = true, length = 50)
     private String login;
     @NotBlank(message = "Password is required")
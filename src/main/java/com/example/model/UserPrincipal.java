@@ -0,0 +1,56 @@
+package com.example.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * What the HTTP session keeps about the signed-in user: a few immutable fields
+ * instead of the entity, so sessions stay small, serialize cheaply and can never
+ * trigger a lazy load. Admin status is decided once, when the principal is built.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class UserPrincipal implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final String ADMIN_ROLE = "ADMIN";
+
+    private final Long id;
+    private final String login;
+    private final String firstName;
+    private final String lastName;
+    private final Long roleId;
+    private final String roleName;
+    private final boolean admin;
+
+    public UserPrincipal(Long id, String login, String firstName, String lastName, Long roleId, String roleName) {
+        this.id = id;
+        this.login = login;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.roleId = roleId;
+        this.roleName = roleName;
+        this.admin = ADMIN_ROLE.equals(roleName);
+    }
+
+    public static UserPrincipal from(User user) {
+        Role role = user.getRole();
+        return new UserPrincipal(user.getId(), user.getLogin(), user.getFirstName(), user.getLastName(),
+                role != null ? role.getId() : null, role != null ? role.getName() : null);
+    }
+
+    /**
+     * The first and last name that are present, or the login when neither is.
+     */
+    public String getDisplayName() {
+        String name = Stream.of(firstName, lastName)
+                .filter(part -> part != null && !part.trim().isEmpty())
+                .collect(Collectors.joining(" "));
+        return name.isEmpty() ? login : name;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.model;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * Read model for the admin user list: only the columns the table shows, built
+ * directly by a constructor-expression query. It is never managed by a session,
+ * so it costs no dirty checking, and it has no password to leak.
+ */
+@Getter
+@ToString
+public class UserSummary {
+    private final Long id;
+    private final String login;
+    private final String firstName;
+    private final String lastName;
+    private final LocalDate birthday;
+    private final String roleName;
+
+    public UserSummary(Long id, String login, String firstName, String lastName, LocalDate birthday, String roleName) {
+        this.id = id;
+        this.login = login;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.birthday = birthday;
+        this.roleName = roleName;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.security;
+
+import com.example.util.DatabaseManager;
+
+import java.util.Locale;
+
+/**
+ * Where the signed-in user is kept between requests, chosen by {@code auth.mode}.
+ */
+public enum AuthMode {
+    /** Container HttpSession; needs sticky sessions or replication across nodes. */
+    SESSION,
+    /** HMAC-signed cookie verified on every request; any node can serve any request. */
+    TOKEN;
+
+    private static final AuthMode current = AuthMode.valueOf(
+            DatabaseManager.getProperties().getProperty("auth.mode", "session").trim().toUpperCase(Locale.ROOT));
+
+    public static AuthMode current() {
+        return current;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.security;
+
+import com.example.util.DatabaseManager;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits sign-in attempts per client IP and per login with token buckets, so a
+ * credential-stuffing burst is turned away before it reaches the database.
+ * The IP is checked first; an attempt refused there does not spend a login token.
+ */
+public class LoginRateLimiter {
+    private static final LoginRateLimiter instance = new LoginRateLimiter();
+
+    private final TokenBucketLimiter byIp;
+    private final TokenBucketLimiter byLogin;
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder throttledByIp = new LongAdder();
+    private final LongAdder throttledByLogin = new LongAdder();
+
+    protected LoginRateLimiter() {
+        int maxKeys = DatabaseManager.getIntProperty("security.login.maxTrackedKeys", 100_000);
+        int stripes = DatabaseManager.getIntProperty("security.login.stripes", 64);
+        this.byIp = new TokenBucketLimiter(
+                DatabaseManager.getIntProperty("security.login.perIp.capacity", 20),
+                DatabaseManager.getIntProperty("security.login.perIp.refillPerMinute", 30),
+                maxKeys, stripes);
+        this.byLogin = new TokenBucketLimiter(
+                DatabaseManager.getIntProperty("security.login.perLogin.capacity", 5),
+                DatabaseManager.getIntProperty("security.login.perLogin.refillPerMinute", 5),
+                maxKeys, stripes);
+    }
+
+    public static LoginRateLimiter getInstance() {
+        return instance;
+    }
+
+    public boolean tryAcquire(String clientIp, String login) {
+        if (!byIp.tryAcquire(clientIp != null ? clientIp : "")) {
+            throttledByIp.increment();
+            return false;
+        }
+        if (login != null && !login.trim().isEmpty()
+                && !byLogin.tryAcquire(login.trim().toLowerCase(Locale.ROOT))) {
+            throttledByLogin.increment();
+            return false;
+        }
+        allowed.increment();
+        return true;
+    }
+
+    public int evictIdle() {
+        return byIp.evictIdle() + byLogin.evictIdle();
+    }
+
+    public long getAllowed() {
+        return allowed.sum();
+    }
+
+    public long getThrottledByIp() {
+        return throttledByIp.sum();
+    }
+
+    public long getThrottledByLogin() {
+        return throttledByLogin.sum();
+    }
+
+    public int getTrackedKeys() {
+        return byIp.size() + byLogin.size();
+    }
+}
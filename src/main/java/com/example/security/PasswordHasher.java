@@ -0,0 +1,266 @@
+package com.example.security;
+
+import com.example.exceptions.ServiceBusyException;
+import com.example.util.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Salted PBKDF2 password hashes, stored as {@code pbkdf2$<iterations>$<salt>$<hash>}
+ * with Base64 salt and hash.
+ * <p>
+ * The iteration count is calibrated once at startup so one hash takes about
+ * {@code security.pbkdf2.targetMillis} on this machine, never below
+ * {@code security.pbkdf2.minIterations}. Stored hashes keep their own count, so
+ * a recalibration does not invalidate them.
+ * <p>
+ * Login verification runs on a small fixed pool with a bounded queue. When the
+ * queue is full the call fails at once with {@link ServiceBusyException} instead
+ * of parking another servlet thread behind a burst of hashes.
+ */
+public class PasswordHasher {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    private static final int CALIBRATION_ITERATIONS = 20_000;
+    private static final int CALIBRATION_ROUNDS = 5;
+
+    private static final PasswordHasher instance = new PasswordHasher();
+
+    private final SecureRandom random = new SecureRandom();
+    private final int minIterations;
+    private final int iterations;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    protected PasswordHasher() {
+        this(DatabaseManager.getIntProperty("security.pbkdf2.minIterations", 100_000),
+                DatabaseManager.getIntProperty("security.pbkdf2.targetMillis", 100),
+                DatabaseManager.getIntProperty("security.hash.timeoutMillis", 2000),
+                DatabaseManager.getIntProperty("security.hash.threads",
+                        Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+                DatabaseManager.getIntProperty("security.hash.queueCapacity", 64));
+    }
+
+    PasswordHasher(int minIterations, int targetMillis, long timeoutMillis, int threads, int queueCapacity) {
+        this.minIterations = minIterations;
+        this.iterations = calibrate(targetMillis);
+        this.timeoutMillis = timeoutMillis;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Password hashing uses {} PBKDF2 iterations on {} threads, queue capacity {}",
+                iterations, threads, queueCapacity);
+    }
+
+    public static PasswordHasher getInstance() {
+        return instance;
+    }
+
+    /**
+     * Hashes on the calling thread; meant for admin writes and imports, not logins.
+     */
+    public String hash(String password) {
+        return hash(password, iterations);
+    }
+
+    /**
+     * Hashes with a caller-chosen iteration count, for bulk imports that cannot pay
+     * the calibrated cost per row. A count below the floor makes
+     * {@link #needsRehash(String)} true, so the hash is replaced on the next login.
+     */
+    public String hash(String password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    /**
+     * Hashes on the verification pool, for work a request should not wait on, such
+     * as upgrading a stored password after a login. Shares the pool's queue limit.
+     *
+     * @throws ServiceBusyException when the pool is saturated
+     */
+    public CompletableFuture<String> hashAsync(String password) {
+        try {
+            return CompletableFuture.supplyAsync(() -> hash(password), executor);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new ServiceBusyException("Password hashing queue is full");
+        }
+    }
+
+    /**
+     * Checks {@code password} against a stored value on the verification pool.
+     * Stored values that are not hashes yet are compared as legacy plaintext.
+     *
+     * @throws ServiceBusyException when the pool is saturated or the check times out
+     */
+    public boolean verify(String password, String stored) {
+        if (stored == null) {
+            return false;
+        }
+
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> matches(password, stored));
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new ServiceBusyException("Password verification queue is full");
+        }
+
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            rejections.increment();
+            throw new ServiceBusyException("Password verification timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new ServiceBusyException("Password verification interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        } finally {
+            verifications.increment();
+        }
+    }
+
+    public boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX + "$");
+    }
+
+    /**
+     * True for legacy plaintext, for malformed hashes and for hashes made with fewer
+     * iterations than the floor.
+     */
+    public boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < minIterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getMinIterations() {
+        return minIterations;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return executor.getQueue().size() + executor.getQueue().remainingCapacity();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getVerifications() {
+        return verifications.sum();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean matches(String password, String stored) {
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] salt = decoder.decode(parts[2]);
+            byte[] expected = decoder.decode(parts[3]);
+            return MessageDigest.isEqual(expected, pbkdf2(password, salt, Integer.parseInt(parts[1])));
+        } catch (IllegalArgumentException e) {
+            // a corrupt iteration count, salt or hash never matches
+            logger.warn("Malformed stored password hash: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Times a fixed hash a few times and scales the best run to the target latency.
+     */
+    private int calibrate(int targetMillis) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        pbkdf2("calibration", salt, CALIBRATION_ITERATIONS);
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            pbkdf2("calibration", salt, CALIBRATION_ITERATIONS);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        long calibrated = CALIBRATION_ITERATIONS * TimeUnit.MILLISECONDS.toNanos(targetMillis) / Math.max(1, best);
+        int chosen = (int) Math.max(minIterations, Math.min(calibrated, Integer.MAX_VALUE));
+        logger.info("PBKDF2 calibration: {} iterations took {} us, using {} iterations for a {} ms target",
+                CALIBRATION_ITERATIONS, best / 1000, chosen, targetMillis);
+        return chosen;
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
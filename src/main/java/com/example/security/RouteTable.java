@@ -0,0 +1,163 @@
+package com.example.security;
+
+import com.example.model.UserPrincipal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Path pattern to required role, compiled once into a trie of path segments so a
+ * lookup costs one hash probe per segment however many rules there are.
+ * <p>
+ * Rules are read from {@code security-routes.properties}: an exact path, or a
+ * prefix ending in {@code /*} that also matches the bare prefix. The deepest
+ * matching rule wins and an exact rule beats a prefix rule on the same path.
+ * Paths no rule covers are public.
+ */
+public class RouteTable {
+    public static final String PUBLIC = "PUBLIC";
+    public static final String AUTHENTICATED = "AUTHENTICATED";
+    private static final String RESOURCE = "security-routes.properties";
+    private static final String WILDCARD = "/*";
+
+    private static final RouteTable instance = load();
+
+    private final Node root = new Node();
+    private final Route unmatched = new Route("(unmatched)", PUBLIC);
+    private final List<Route> routes = new ArrayList<>();
+
+    public RouteTable(Map<String, String> rules) {
+        rules.forEach(this::add);
+        routes.add(unmatched);
+    }
+
+    public static RouteTable getInstance() {
+        return instance;
+    }
+
+    /**
+     * The rule for {@code path}, e.g. the servlet path plus path info of a request.
+     */
+    public Route match(String path) {
+        Node node = root;
+        Route best = root.prefix;
+        int start = 1;
+        while (node != null && start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (end > start) {
+                node = node.children.get(path.substring(start, end));
+                if (node != null && node.prefix != null) {
+                    best = node.prefix;
+                }
+            }
+            start = end + 1;
+        }
+        if (node != null && node.exact != null) {
+            return node.exact;
+        }
+        return best != null ? best : unmatched;
+    }
+
+    public List<Route> getRoutes() {
+        return Collections.unmodifiableList(routes);
+    }
+
+    private void add(String pattern, String requirement) {
+        boolean prefix = pattern.endsWith(WILDCARD);
+        String path = prefix ? pattern.substring(0, pattern.length() - WILDCARD.length()) : pattern;
+        if (!path.isEmpty() && !path.startsWith("/")) {
+            throw new IllegalArgumentException("Route pattern must start with '/': " + pattern);
+        }
+
+        Node node = root;
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+            }
+        }
+        Route route = new Route(pattern, requirement.trim());
+        if (prefix) {
+            node.prefix = route;
+        } else {
+            node.exact = route;
+        }
+        routes.add(route);
+    }
+
+    private static RouteTable load() {
+        Properties properties = new Properties();
+        try (InputStream input = RouteTable.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (input == null) {
+                throw new IllegalStateException("Unable to find " + RESOURCE);
+            }
+            properties.load(input);
+        } catch (IOException e) {
+            throw new IllegalStateException("Error loading " + RESOURCE, e);
+        }
+
+        Map<String, String> rules = new HashMap<>();
+        properties.stringPropertyNames().forEach(pattern -> rules.put(pattern.trim(), properties.getProperty(pattern)));
+        return new RouteTable(rules);
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private Route exact;
+        private Route prefix;
+    }
+
+    /**
+     * One rule with its decision counters.
+     */
+    public static final class Route {
+        private final String pattern;
+        private final String requirement;
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder denied = new LongAdder();
+
+        private Route(String pattern, String requirement) {
+            this.pattern = pattern;
+            this.requirement = requirement;
+        }
+
+        public boolean isPublic() {
+            return PUBLIC.equals(requirement);
+        }
+
+        /**
+         * Whether {@code principal} (null when signed out) may use this route; counts the decision.
+         */
+        public boolean permits(UserPrincipal principal) {
+            boolean permitted = isPublic() || principal != null
+                    && (AUTHENTICATED.equals(requirement) || requirement.equals(principal.getRoleName()));
+            (permitted ? allowed : denied).increment();
+            return permitted;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public String getRequirement() {
+            return requirement;
+        }
+
+        public long getAllowed() {
+            return allowed.sum();
+        }
+
+        public long getDenied() {
+            return denied.sum();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.security;
+
+import com.example.model.User;
+import com.example.model.UserPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpSession;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live HTTP sessions by user id, so a committed change to a user reaches the
+ * sessions signed in as that user: an update replaces their principal and a
+ * delete invalidates them. Signed tokens cannot be rewritten in the client, so
+ * in {@link AuthMode#TOKEN} both revoke the user's tokens and the user signs in again.
+ * <p>
+ * Sessions are tracked by id, because containers may hand out a different
+ * {@link HttpSession} facade for the same session, and the id alone is enough for
+ * the session listener to drop one, even after its principal attribute was removed.
+ */
+public class SessionRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(SessionRegistry.class);
+    private static final SessionRegistry instance = new SessionRegistry();
+
+    public static final String PRINCIPAL_ATTRIBUTE = "currentUser";
+
+    private final Map<Long, Map<String, HttpSession>> sessionsByUser = new ConcurrentHashMap<>();
+    private final Map<String, Long> usersBySession = new ConcurrentHashMap<>();
+    private final TokenRevocationList tokenRevocations = TokenRevocationList.getInstance();
+
+    protected SessionRegistry() {
+    }
+
+    public static SessionRegistry getInstance() {
+        return instance;
+    }
+
+    public void register(HttpSession session, UserPrincipal principal) {
+        String sessionId = session.getId();
+        Long previous = usersBySession.put(sessionId, principal.getId());
+        if (previous != null && !previous.equals(principal.getId())) {
+            removeSession(previous, sessionId);
+        }
+        session.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+        sessionsByUser.computeIfAbsent(principal.getId(), id -> new ConcurrentHashMap<>()).put(sessionId, session);
+    }
+
+    /**
+     * Forgets the session with {@code sessionId}, whichever user it was signed in as.
+     */
+    public void unregister(String sessionId) {
+        Long userId = usersBySession.remove(sessionId);
+        if (userId != null) {
+            removeSession(userId, sessionId);
+        }
+    }
+
+    /**
+     * Moves a registered session to its new id, e.g. after {@code changeSessionId()}.
+     */
+    public void changeSessionId(String oldSessionId, HttpSession session) {
+        Long userId = usersBySession.remove(oldSessionId);
+        if (userId == null) {
+            return;
+        }
+        removeSession(userId, oldSessionId);
+        usersBySession.put(session.getId(), userId);
+        sessionsByUser.computeIfAbsent(userId, id -> new ConcurrentHashMap<>()).put(session.getId(), session);
+    }
+
+    private void removeSession(Long userId, String sessionId) {
+        sessionsByUser.computeIfPresent(userId, (id, sessions) -> {
+            sessions.remove(sessionId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    /**
+     * Gives every session of {@code user} a principal built from its current state.
+     */
+    public void refresh(User user) {
+        if (AuthMode.current() == AuthMode.TOKEN) {
+            tokenRevocations.revokeUser(user.getId());
+        }
+        Map<String, HttpSession> sessions = sessionsByUser.get(user.getId());
+        if (sessions == null) {
+            return;
+        }
+
+        UserPrincipal principal = UserPrincipal.from(user);
+        for (Map.Entry<String, HttpSession> entry : sessions.entrySet()) {
+            try {
+                entry.getValue().setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+            } catch (IllegalStateException e) {
+                // invalidated concurrently; the session listener drops it too
+                unregister(entry.getKey());
+            }
+        }
+        logger.debug("Refreshed {} session(s) of user {}", sessions.size(), user.getLogin());
+    }
+
+    /**
+     * Signs out every session of the user with {@code userId}.
+     */
+    public void invalidate(Long userId) {
+        if (AuthMode.current() == AuthMode.TOKEN) {
+            tokenRevocations.revokeUser(userId);
+        }
+        Map<String, HttpSession> sessions = sessionsByUser.remove(userId);
+        if (sessions == null) {
+            return;
+        }
+
+        sessions.keySet().forEach(usersBySession::remove);
+        for (HttpSession session : sessions.values()) {
+            try {
+                session.invalidate();
+            } catch (IllegalStateException e) {
+                // already invalidated
+            }
+        }
+        logger.debug("Invalidated {} session(s) of user id {}", sessions.size(), userId);
+    }
+
+    public int size() {
+        return usersBySession.size();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by string, one {@link AtomicLong} per key updated with
+ * compare-and-set, so taking a token never blocks.
+ * <p>
+ * Each bucket packs its state into one long: the time of the last refill in
+ * milliseconds since the limiter was created (upper 48 bits) and the token count
+ * in 1/64 token units (lower 16 bits, so at most 1023 tokens).
+ * <p>
+ * Keys are spread over a power-of-two number of maps. A stripe that reaches its
+ * share of {@code maxKeys} first drops idle buckets (ones that have refilled to
+ * capacity, which behave exactly like a missing key); if it is still full, new
+ * keys share one overflow bucket until room frees up.
+ */
+public class TokenBucketLimiter {
+    private static final int FRACTION_BITS = 6;
+    private static final long ONE_TOKEN = 1L << FRACTION_BITS;
+    private static final int TOKEN_BITS = 16;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MAX_CAPACITY = TOKEN_MASK >> FRACTION_BITS;
+
+    private final long capacity;
+    private final long refillPerMinute;
+    private final int maxKeysPerStripe;
+    private final Map<String, AtomicLong>[] stripes;
+    private final AtomicLong overflow;
+    private final long epoch = System.nanoTime();
+
+    @SuppressWarnings("unchecked")
+    public TokenBucketLimiter(int capacity, int refillPerMinute, int maxKeys, int stripeCount) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY + ": " + capacity);
+        }
+        if (refillPerMinute <= 0) {
+            throw new IllegalArgumentException("Refill rate must be positive: " + refillPerMinute);
+        }
+        int stripeTotal = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.capacity = capacity * ONE_TOKEN;
+        this.refillPerMinute = refillPerMinute;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / stripeTotal);
+        this.stripes = new Map[stripeTotal];
+        for (int i = 0; i < stripeTotal; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.overflow = new AtomicLong(pack(now(), this.capacity));
+    }
+
+    /**
+     * Takes one token for {@code key}; false means the key is over its limit.
+     */
+    public boolean tryAcquire(String key) {
+        return tryAcquire(bucket(key), now());
+    }
+
+    /**
+     * Drops every bucket that has refilled to capacity and returns how many went.
+     */
+    public int evictIdle() {
+        long now = now();
+        int evicted = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            evicted += evictIdle(stripe, now);
+        }
+        return evicted;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private AtomicLong bucket(String key) {
+        Map<String, AtomicLong> stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+        AtomicLong bucket = stripe.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+
+        if (stripe.size() >= maxKeysPerStripe && evictIdle(stripe, now()) == 0) {
+            return overflow;
+        }
+        AtomicLong created = new AtomicLong(pack(now(), capacity));
+        bucket = stripe.putIfAbsent(key, created);
+        return bucket != null ? bucket : created;
+    }
+
+    private boolean tryAcquire(AtomicLong bucket, long now) {
+        while (true) {
+            long state = bucket.get();
+            long refilledAt = refilledAt(state, now);
+            long tokens = tokensAt(state, now);
+            if (tokens < ONE_TOKEN) {
+                return false;
+            }
+            if (bucket.compareAndSet(state, pack(refilledAt, tokens - ONE_TOKEN))) {
+                return true;
+            }
+        }
+    }
+
+    private int evictIdle(Map<String, AtomicLong> stripe, long now) {
+        int evicted = 0;
+        for (Map.Entry<String, AtomicLong> entry : stripe.entrySet()) {
+            if (tokensAt(entry.getValue().get(), now) >= capacity && stripe.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private long tokensAt(long state, long now) {
+        return Math.min(capacity, (state & TOKEN_MASK) + added(state >>> TOKEN_BITS, now));
+    }
+
+    /**
+     * The refill time only moves once at least one token unit was added, so slow
+     * refill rates are not lost to rounding on frequent calls.
+     */
+    private long refilledAt(long state, long now) {
+        long last = state >>> TOKEN_BITS;
+        return added(last, now) > 0 ? Math.max(last, now) : last;
+    }
+
+    private long added(long last, long now) {
+        return Math.max(0, now - last) * refillPerMinute * ONE_TOKEN / 60_000L;
+    }
+
+    private long now() {
+        return (System.nanoTime() - epoch) / 1_000_000L;
+    }
+
+    private static long pack(long time, long tokens) {
+        return (time << TOKEN_BITS) | tokens;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Signed tokens that must no longer be accepted, checked with two hash lookups
+ * per request: single tokens by id (sign-out) and every token of a user issued
+ * up to some instant (the user was changed or deleted).
+ * <p>
+ * Entries are only needed until the tokens they cover expire, so
+ * {@link #purgeExpired(long)} keeps the lists as small as the set of live tokens.
+ * The lists are held per node; a cluster has to share them (or keep token
+ * lifetimes short) for a revocation to take effect everywhere.
+ */
+public class TokenRevocationList {
+    private static final TokenRevocationList instance = new TokenRevocationList();
+
+    private final Map<Long, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<Long, Long> revokedUsers = new ConcurrentHashMap<>();
+
+    protected TokenRevocationList() {
+    }
+
+    public static TokenRevocationList getInstance() {
+        return instance;
+    }
+
+    public void revokeToken(long tokenId, long expiresAtMillis) {
+        revokedTokens.put(tokenId, expiresAtMillis);
+    }
+
+    /**
+     * Rejects every token of {@code userId} issued up to now.
+     */
+    public void revokeUser(Long userId) {
+        revokedUsers.merge(userId, System.currentTimeMillis(), Math::max);
+    }
+
+    public boolean isRevoked(long tokenId, Long userId, long issuedAtMillis) {
+        if (revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+        Long revokedAt = revokedUsers.get(userId);
+        return revokedAt != null && issuedAtMillis <= revokedAt;
+    }
+
+    /**
+     * Drops entries that only cover tokens which have expired anyway.
+     */
+    public void purgeExpired(long tokenTtlMillis) {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        revokedUsers.values().removeIf(revokedAt -> revokedAt + tokenTtlMillis < now);
+    }
+
+    public int size() {
+        return revokedTokens.size() + revokedUsers.size();
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.security;
+
+import com.example.model.UserPrincipal;
+import com.example.util.DatabaseManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues and verifies the signed tokens used in {@link AuthMode#TOKEN}, formatted
+ * as {@code <kid>.<payload>.<signature>} with Base64url payload and signature.
+ * The payload carries the whole {@link UserPrincipal} plus issue time, expiry
+ * and a random token id, so verifying a token needs no session and no database.
+ * <p>
+ * Keys come from {@code auth.token.keys} as {@code kid:base64Secret} pairs, and
+ * new tokens are signed with {@code auth.token.activeKeyId}. To rotate, add the
+ * new key, make it active, and remove the old one once its tokens have expired
+ * ({@code auth.token.ttlMinutes}). Without configured keys a random key is
+ * generated, which only works on a single node and signs everyone out on restart.
+ */
+public class TokenService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1;
+    private static final long NO_ROLE = -1L;
+
+    private static final TokenService instance = new TokenService();
+
+    private final Map<String, SecretKeySpec> keys;
+    private final String activeKeyId;
+    private final long ttlMillis;
+    private final SecureRandom random = new SecureRandom();
+    private final TokenRevocationList revocations;
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance(ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    });
+
+    protected TokenService() {
+        this(DatabaseManager.getProperties().getProperty("auth.token.keys", ""),
+                DatabaseManager.getProperties().getProperty("auth.token.activeKeyId", ""),
+                TimeUnit.MINUTES.toMillis(DatabaseManager.getIntProperty("auth.token.ttlMinutes", 60)),
+                TokenRevocationList.getInstance());
+    }
+
+    TokenService(String keys, String activeKeyId, long ttlMillis, TokenRevocationList revocations) {
+        this.ttlMillis = ttlMillis;
+        this.revocations = revocations;
+        Map<String, SecretKeySpec> configured = parseKeys(keys);
+        if (configured.isEmpty()) {
+            byte[] secret = new byte[32];
+            random.nextBytes(secret);
+            configured.put("local", new SecretKeySpec(secret, ALGORITHM));
+            this.activeKeyId = "local";
+            if (AuthMode.current() == AuthMode.TOKEN) {
+                logger.warn("No auth.token.keys configured, signing tokens with a random key for this node only");
+            }
+        } else {
+            this.activeKeyId = activeKeyId.trim();
+            if (!configured.containsKey(this.activeKeyId)) {
+                throw new IllegalStateException("auth.token.activeKeyId is not one of auth.token.keys: " + this.activeKeyId);
+            }
+        }
+        this.keys = Collections.unmodifiableMap(configured);
+    }
+
+    public static TokenService getInstance() {
+        return instance;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public String issue(UserPrincipal principal) {
+        long issuedAt = System.currentTimeMillis();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(random.nextLong());
+            out.writeLong(issuedAt);
+            out.writeLong(issuedAt + ttlMillis);
+            out.writeLong(principal.getId());
+            out.writeLong(principal.getRoleId() != null ? principal.getRoleId() : NO_ROLE);
+            out.writeUTF(nullToEmpty(principal.getRoleName()));
+            out.writeUTF(nullToEmpty(principal.getLogin()));
+            out.writeUTF(nullToEmpty(principal.getFirstName()));
+            out.writeUTF(nullToEmpty(principal.getLastName()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Error writing token", e);
+        }
+
+        String signed = activeKeyId + "." + encode(bytes.toByteArray());
+        return signed + "." + encode(sign(keys.get(activeKeyId), signed));
+    }
+
+    /**
+     * Returns the principal of a valid, unexpired and unrevoked token, or null.
+     */
+    public UserPrincipal verify(String token) {
+        Claims claims = parse(token);
+        if (claims == null || claims.expiresAt <= System.currentTimeMillis()
+                || revocations.isRevoked(claims.tokenId, claims.principal.getId(), claims.issuedAt)) {
+            return null;
+        }
+        return claims.principal;
+    }
+
+    /**
+     * Stops a token from being accepted again, e.g. on sign-out.
+     */
+    public void revoke(String token) {
+        Claims claims = parse(token);
+        if (claims != null) {
+            revocations.revokeToken(claims.tokenId, claims.expiresAt);
+        }
+    }
+
+    private Claims parse(String token) {
+        if (token == null) {
+            return null;
+        }
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot) {
+            return null;
+        }
+
+        SecretKeySpec key = keys.get(token.substring(0, firstDot));
+        if (key == null) {
+            return null;
+        }
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(lastDot + 1));
+            if (!MessageDigest.isEqual(signature, sign(key, token.substring(0, lastDot)))) {
+                return null;
+            }
+
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(firstDot + 1, lastDot));
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+                if (in.readByte() != VERSION) {
+                    return null;
+                }
+                long tokenId = in.readLong();
+                long issuedAt = in.readLong();
+                long expiresAt = in.readLong();
+                long userId = in.readLong();
+                long roleId = in.readLong();
+                String roleName = in.readUTF();
+                String login = in.readUTF();
+                String firstName = in.readUTF();
+                String lastName = in.readUTF();
+                UserPrincipal principal = new UserPrincipal(userId, login, firstName, lastName,
+                        roleId != NO_ROLE ? roleId : null, roleName.isEmpty() ? null : roleName);
+                return new Claims(tokenId, issuedAt, expiresAt, principal);
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            logger.debug("Rejected malformed token", e);
+            return null;
+        }
+    }
+
+    private byte[] sign(SecretKeySpec key, String data) {
+        Mac mac = macs.get();
+        try {
+            mac.init(key);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error initializing " + ALGORITHM, e);
+        }
+        return mac.doFinal(data.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Map<String, SecretKeySpec> parseKeys(String value) {
+        Map<String, SecretKeySpec> keys = new HashMap<>();
+        for (String entry : value.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int colon = trimmed.indexOf(':');
+            if (colon <= 0 || trimmed.substring(0, colon).indexOf('.') >= 0) {
+                throw new IllegalStateException("auth.token.keys entries must look like kid:base64Secret");
+            }
+            byte[] secret = Base64.getDecoder().decode(trimmed.substring(colon + 1).trim());
+            if (secret.length < 32) {
+                throw new IllegalStateException("auth.token.keys secret for " + trimmed.substring(0, colon)
+                        + " must be at least 32 bytes");
+            }
+            keys.put(trimmed.substring(0, colon), new SecretKeySpec(secret, ALGORITHM));
+        }
+        return keys;
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static final class Claims {
+        private final long tokenId;
+        private final long issuedAt;
+        private final long expiresAt;
+        private final UserPrincipal principal;
+
+        private Claims(long tokenId, long issuedAt, long expiresAt, UserPrincipal principal) {
+            this.tokenId = tokenId;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+            this.principal = principal;
+        }
+    }
+}
@@ -1,13 +1,26 @@
 package com.example.service;
 
+import com.example.dao.DaoFactory;
+import com.example.dao.UserDao;
+import com.example.exceptions.ServiceBusyException;
 import com.example.model.User;
+import com.example.security.PasswordHasher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class AuthenticationService {
     private static final Logger logger = LoggerFactory.getLogger(AuthenticationService.class);
-    private final JdbcUserDao userDao = new JdbcUserDao();
+    private final UserDao userDao = DaoFactory.getUserDao();
+    private final PasswordHasher passwordHasher = PasswordHasher.getInstance();
+    // verified for unknown logins too, so response time does not reveal which logins exist
+    private final String unknownUserHash = passwordHasher.hash("unknown-user");
 
+    /**
+     * Returns the user when the password matches. A legacy plaintext or weak hash
+     * is replaced by a fresh hash in the background after a successful check.
+     *
+     * @throws ServiceBusyException when password verification is saturated
+     */
     public User authenticate(String login, String password) {
         if (login == null || login.trim().isEmpty() ||
                 password == null || password.trim().isEmpty()) {
@@ -16,14 +29,46 @@ public class AuthenticationService {
 
         try {
             User user = userDao.findByLogin(login.trim());
-            if (user != null && password.equals(user.getPassword())) {
-                logger.info("User authenticated: {}", login);
-                return user;
+            if (user == null) {
+                passwordHasher.verify(password, unknownUserHash);
+                return null;
             }
-            return null;
+            if (!passwordHasher.verify(password, user.getPassword())) {
+                return null;
+            }
+
+            if (passwordHasher.needsRehash(user.getPassword())) {
+                upgradePassword(user, password);
+            }
+            logger.info("User authenticated: {}", login);
+            return user;
+        } catch (ServiceBusyException e) {
+            logger.warn("Authentication rejected for {}: {}", login, e.getMessage());
+            throw e;
         } catch (Exception e) {
             logger.error("Authentication error", e);
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Rehashes on the hasher pool and stores the result from there, so the login
+     * does not pay for a second hash. When the pool is busy the upgrade is skipped.
+     */
+    private void upgradePassword(User user, String password) {
+        try {
+            passwordHasher.hashAsync(password)
+                    .thenAccept(hash -> {
+                        userDao.updatePassword(user, hash);
+                        logger.info("Upgraded stored password for user: {}", user.getLogin());
+                    })
+                    .exceptionally(e -> {
+                        // the login itself succeeded; the upgrade is retried on the next one
+                        logger.error("Error upgrading password for user: {}", user.getLogin(), e);
+                        return null;
+                    });
+        } catch (ServiceBusyException e) {
+            logger.debug("Skipped password upgrade for user {}: {}", user.getLogin(), e.getMessage());
+        }
+    }
+}
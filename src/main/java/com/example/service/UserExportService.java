@@ -0,0 +1,106 @@
+package com.example.service;
+
+import com.example.dao.DaoFactory;
+import com.example.dao.UserDao;
+import com.example.model.User;
+import com.example.util.Csv;
+import com.example.util.DatabaseManager;
+import com.example.util.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Writes every user to a writer straight from the DAO's forward-only cursor.
+ * Rows are formatted one at a time and never collected, and the writer is
+ * flushed every {@code export.flushRows} rows so output leaves while the query
+ * is still running. Passwords are never exported.
+ */
+public class UserExportService {
+    private static final Logger logger = LoggerFactory.getLogger(UserExportService.class);
+    private static final String CSV_HEADER = "id,login,email,firstName,lastName,birthday,role";
+
+    private final UserDao userDao = DaoFactory.getUserDao();
+    private final int flushRows = DatabaseManager.getIntProperty("export.flushRows", 1000);
+
+    /**
+     * Returns the number of rows written. An {@link IOException} from the writer,
+     * typically a client that went away, stops the cursor and is rethrown as is.
+     */
+    public long exportUsers(ExportFormat format, Writer writer) throws IOException {
+        long start = System.nanoTime();
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        writer.flush();
+
+        long[] rows = {0};
+        try {
+            userDao.forEach(user -> {
+                try {
+                    if (format == ExportFormat.CSV) {
+                        writeCsv(writer, user);
+                    } else {
+                        writeJson(writer, user);
+                    }
+                    if (++rows[0] % flushRows == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof UncheckedIOException) {
+                    logger.warn("User export aborted after {} rows", rows[0]);
+                    throw ((UncheckedIOException) cause).getCause();
+                }
+            }
+            throw e;
+        }
+        writer.flush();
+
+        logger.info("Exported {} users as {} in {} ms", rows[0], format, (System.nanoTime() - start) / 1_000_000);
+        return rows[0];
+    }
+
+    private void writeCsv(Writer writer, User user) throws IOException {
+        writer.write(String.valueOf(user.getId()));
+        writer.write(',');
+        writer.write(Csv.quote(user.getLogin()));
+        writer.write(',');
+        writer.write(Csv.quote(user.getEmail()));
+        writer.write(',');
+        writer.write(Csv.quote(user.getFirstName()));
+        writer.write(',');
+        writer.write(Csv.quote(user.getLastName()));
+        writer.write(',');
+        writer.write(user.getBirthday() != null ? user.getBirthday().toString() : "");
+        writer.write(',');
+        writer.write(Csv.quote(user.getRole() != null ? user.getRole().getName() : null));
+        writer.write('\n');
+    }
+
+    private void writeJson(Writer writer, User user) throws IOException {
+        writer.write("{\"id\":");
+        writer.write(String.valueOf(user.getId()));
+        writer.write(",\"login\":");
+        writer.write(Json.quote(user.getLogin()));
+        writer.write(",\"email\":");
+        writer.write(Json.quote(user.getEmail()));
+        writer.write(",\"firstName\":");
+        writer.write(Json.quote(user.getFirstName()));
+        writer.write(",\"lastName\":");
+        writer.write(Json.quote(user.getLastName()));
+        writer.write(",\"birthday\":");
+        writer.write(Json.quote(user.getBirthday() != null ? user.getBirthday().toString() : null));
+        writer.write(",\"role\":");
+        writer.write(Json.quote(user.getRole() != null ? user.getRole().getName() : null));
+        writer.write("}\n");
+    }
+}
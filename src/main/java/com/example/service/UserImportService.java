@@ -0,0 +1,292 @@
+package com.example.service;
+
+import com.example.dao.DaoFactory;
+import com.example.dao.RoleDao;
+import com.example.dao.UserDao;
+import com.example.exceptions.ValidationException;
+import com.example.model.ImportReport;
+import com.example.model.Role;
+import com.example.model.User;
+import com.example.security.PasswordHasher;
+import com.example.util.Csv;
+import com.example.util.DatabaseManager;
+import com.example.util.SqlErrors;
+import com.example.validator.UserValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Imports users from CSV with a header row naming the columns
+ * {@code login, password, email, firstName, lastName} and optionally
+ * {@code birthday} (ISO date) and {@code role} (role name).
+ * <p>
+ * The input is read one chunk of {@code db.batch.size} rows at a time. Each chunk
+ * is validated and hashed on a small import pool, checked for duplicates against
+ * the rows already seen in the file and with one bulk query per column against
+ * the database, and its valid rows are inserted as one JDBC batch.
+ * <p>
+ * The import pool has {@code import.threads} threads and a queue of one chunk.
+ * Rows that do not fit run on the importing thread, so concurrent imports slow
+ * down instead of piling up, and hashing never lands on the common ForkJoinPool
+ * that parallel streams elsewhere share.
+ * <p>
+ * Hashing dominates the cost: at the calibrated PBKDF2 cost of about
+ * {@code security.pbkdf2.targetMillis} per row, 10,000 rows keep two threads busy
+ * for over eight minutes within one request. {@code import.pbkdf2.iterations}
+ * lowers the cost for imported rows only; below
+ * {@code security.pbkdf2.minIterations} those hashes are replaced with full-cost
+ * ones on each user's first login.
+ */
+public class UserImportService {
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+    private static final List<String> REQUIRED_COLUMNS =
+            Arrays.asList("login", "password", "email", "firstname", "lastname");
+    private static final String LOGIN_EXISTS = "Login already exists";
+    private static final String EMAIL_EXISTS = "Email already exists";
+    private static final String ROLE_REQUIRED = "Role is required";
+    private static final long SLOW_IMPORT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final ThreadPoolExecutor executor = createExecutor();
+
+    private final UserDao userDao = DaoFactory.getUserDao();
+    private final RoleDao roleDao = DaoFactory.getRoleDao();
+    private final UserValidator userValidator = new UserValidator();
+    private final PasswordHasher passwordHasher = PasswordHasher.getInstance();
+    private final int chunkSize = DatabaseManager.getIntProperty("db.batch.size", 500);
+    private final int maxReportedErrors = DatabaseManager.getIntProperty("import.maxReportedErrors", 1000);
+    private final int hashIterations =
+            DatabaseManager.getIntProperty("import.pbkdf2.iterations", passwordHasher.getIterations());
+
+    public UserImportService() {
+        if (hashIterations < passwordHasher.getMinIterations()) {
+            logger.warn("Imported passwords are hashed with {} PBKDF2 iterations, below the floor of {}; " +
+                    "each is rehashed on the user's first login", hashIterations, passwordHasher.getMinIterations());
+        }
+    }
+
+    public ImportReport importUsers(BufferedReader reader) throws IOException {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport(maxReportedErrors);
+
+        String header = reader.readLine();
+        if (header == null) {
+            throw new ValidationException("The file is empty");
+        }
+        Map<String, Integer> columns = parseHeader(header);
+
+        Set<String> seenLogins = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        int lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            chunk.add(new ImportRow(lineNumber, line));
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, columns, seenLogins, seenEmails, report);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, columns, seenLogins, seenEmails, report);
+        }
+
+        report.finish((System.nanoTime() - start) / 1_000_000);
+        if (report.getElapsedMillis() > SLOW_IMPORT_MILLIS) {
+            logger.warn("User import of {} rows took {} ms at {} rows/s; " +
+                            "import.pbkdf2.iterations (now {}) lowers the per-row hashing cost",
+                    report.getTotalRows(), report.getElapsedMillis(), report.getRowsPerSecond(), hashIterations);
+        }
+        logger.info("User import finished: {} rows, {} imported, {} rejected in {} ms",
+                report.getTotalRows(), report.getImportedRows(), report.getRejectedRows(), report.getElapsedMillis());
+        return report;
+    }
+
+    private Map<String, Integer> parseHeader(String header) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = Csv.parseLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).toLowerCase(Locale.ROOT), i);
+        }
+
+        List<String> missing = REQUIRED_COLUMNS.stream()
+                .filter(column -> !columns.containsKey(column))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new ValidationException("CSV header is missing columns: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private void importChunk(List<ImportRow> chunk, Map<String, Integer> columns,
+                             Set<String> seenLogins, Set<String> seenEmails, ImportReport report) {
+        report.addRows(chunk.size());
+
+        // parsing, field rules and hashing touch nothing shared, so they spread across the pool
+        List<Future<?>> tasks = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            tasks.add(executor.submit(() -> {
+                row.parse(columns, roleDao, userValidator);
+                if (row.isValid()) {
+                    row.user.setPassword(passwordHasher.hash(row.user.getPassword(), hashIterations));
+                }
+            }));
+        }
+        awaitAll(tasks);
+
+        List<ImportRow> candidates = chunk.stream().filter(ImportRow::isValid).collect(Collectors.toList());
+        Set<String> existingLogins = userDao.findExistingLogins(
+                candidates.stream().map(row -> row.user.getLogin()).collect(Collectors.toList()));
+        Set<String> existingEmails = userDao.findExistingEmails(
+                candidates.stream().map(row -> row.user.getEmail()).collect(Collectors.toList()));
+
+        List<User> users = new ArrayList<>(candidates.size());
+        for (ImportRow row : candidates) {
+            // add() is evaluated first so a row's values count as seen even when rejected
+            if (!seenLogins.add(row.user.getLogin()) || existingLogins.contains(row.user.getLogin())) {
+                row.errors.add(LOGIN_EXISTS);
+            }
+            if (!seenEmails.add(row.user.getEmail()) || existingEmails.contains(row.user.getEmail())) {
+                row.errors.add(EMAIL_EXISTS);
+            }
+            if (row.isValid()) {
+                users.add(row.user);
+            }
+        }
+
+        if (!users.isEmpty()) {
+            try {
+                userDao.createAll(users);
+                report.addImported(users.size());
+            } catch (RuntimeException e) {
+                String message = SqlErrors.isUniqueViolation(e)
+                        ? "Login or email was taken while importing"
+                        : "Insert failed";
+                logger.error("Error inserting import chunk of {} users", users.size(), e);
+                candidates.stream().filter(ImportRow::isValid).forEach(row -> row.errors.add(message));
+            }
+        }
+
+        for (ImportRow row : chunk) {
+            if (!row.isValid()) {
+                report.reject(row.lineNumber, row.user != null ? row.user.getLogin() : null, row.errors);
+            }
+        }
+    }
+
+    public static void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static void awaitAll(List<Future<?>> tasks) {
+        try {
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tasks.forEach(task -> task.cancel(true));
+            throw new IllegalStateException("User import interrupted", e);
+        } catch (ExecutionException e) {
+            tasks.forEach(task -> task.cancel(true));
+            throw new IllegalStateException("Error preparing import rows", e.getCause());
+        }
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        int threads = DatabaseManager.getIntProperty("import.threads",
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        int queueCapacity = DatabaseManager.getIntProperty("db.batch.size", 500);
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-import-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private static final class ImportRow {
+        private final int lineNumber;
+        private final String line;
+        private final List<String> errors = new ArrayList<>();
+        private User user;
+
+        private ImportRow(int lineNumber, String line) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+
+        private boolean isValid() {
+            return errors.isEmpty();
+        }
+
+        private void parse(Map<String, Integer> columns, RoleDao roleDao, UserValidator userValidator) {
+            List<String> fields = Csv.parseLine(line);
+            user = new User();
+            user.setLogin(field(fields, columns, "login"));
+            user.setPassword(field(fields, columns, "password"));
+            user.setEmail(field(fields, columns, "email"));
+            user.setFirstName(field(fields, columns, "firstname"));
+            user.setLastName(field(fields, columns, "lastname"));
+
+            String birthday = field(fields, columns, "birthday");
+            if (birthday != null) {
+                try {
+                    user.setBirthday(LocalDate.parse(birthday));
+                } catch (DateTimeParseException e) {
+                    errors.add("Invalid birthday: " + birthday);
+                }
+            }
+
+            String roleName = field(fields, columns, "role");
+            boolean unknownRole = false;
+            if (roleName != null) {
+                Role role = roleDao.findByName(roleName.toUpperCase(Locale.ROOT));
+                user.setRole(role);
+                if (role == null) {
+                    errors.add("Unknown role: " + roleName);
+                    unknownRole = true;
+                }
+            }
+
+            for (String error : userValidator.validateForCreate(user)) {
+                if (!(unknownRole && ROLE_REQUIRED.equals(error))) {
+                    errors.add(error);
+                }
+            }
+        }
+
+        private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+                return null;
+            }
+            return fields.get(index);
+        }
+    }
+}
@@ -1,17 +1,28 @@
 package com.example.service;
 
-import com.example.dao.HibernateRoleDao;
-import com.example.dao.HibernateUserDao;
+import com.example.dao.DaoFactory;
 import com.example.dao.RoleDao;
+import com.example.dao.SortDirection;
 import com.example.dao.UserDao;
+import com.example.model.Page;
 import com.example.model.Role;
 import com.example.model.User;
+import com.example.model.UserSummary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
+import com.example.exceptions.DuplicateUserException;
 import com.example.exceptions.ValidationException;
+import com.example.security.PasswordHasher;
+import com.example.util.SqlErrors;
+
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
@@ -20,13 +31,22 @@ import javax.validation.ValidatorFactory;
 
 public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+    private static final String LOGIN_EXISTS = "Login already exists";
+    private static final String EMAIL_EXISTS = "Email already exists";
 
-    private final UserDao userDao = new HibernateUserDao();
-    private final RoleDao roleDao = new HibernateRoleDao();
+    private final UserDao userDao = DaoFactory.getUserDao();
+    private final RoleDao roleDao = DaoFactory.getRoleDao();
+    private final PasswordHasher passwordHasher = PasswordHasher.getInstance();
     private final Validator validator;
 
+    /**
+     * The constraint messages are plain text, so the validator interpolates
+     * without Unified EL and does not depend on the container providing it.
+     */
     public UserService() {
-        try(ValidatorFactory factory = Validation.buildDefaultValidatorFactory()){
+        try (ValidatorFactory factory = Validation.byDefaultProvider().configure()
+                .messageInterpolator(new ParameterMessageInterpolator())
+                .buildValidatorFactory()) {
             this.validator = factory.getValidator();
         }
     }
@@ -40,6 +60,52 @@ public class UserService {
         }
     }
 
+    public void forEachUserSummary(Consumer<? super UserSummary> action) {
+        try {
+            userDao.forEachSummary(action);
+        } catch (Exception e) {
+            logger.error("Error streaming users", e);
+            throw new RuntimeException("Error streaming users", e);
+        }
+    }
+
+    public Page<UserSummary> getUserPage(String afterLogin, String beforeLogin, int size) {
+        try {
+            if (beforeLogin != null) {
+                List<UserSummary> users = userDao.findSummaryPage(beforeLogin, size + 1, SortDirection.DESC);
+                boolean hasPrev = users.size() > size;
+                if (hasPrev) {
+                    users = users.subList(0, size);
+                }
+                Collections.reverse(users);
+                String prevCursor = hasPrev ? users.get(0).getLogin() : null;
+                String nextCursor = users.isEmpty() ? null : users.get(users.size() - 1).getLogin();
+                return new Page<>(users, prevCursor, nextCursor, size);
+            }
+
+            List<UserSummary> users = userDao.findSummaryPage(afterLogin, size + 1, SortDirection.ASC);
+            boolean hasNext = users.size() > size;
+            if (hasNext) {
+                users = users.subList(0, size);
+            }
+            String prevCursor = afterLogin != null && !users.isEmpty() ? users.get(0).getLogin() : null;
+            String nextCursor = hasNext ? users.get(users.size() - 1).getLogin() : null;
+            return new Page<>(users, prevCursor, nextCursor, size);
+        } catch (Exception e) {
+            logger.error("Error retrieving user page after: {} before: {}", afterLogin, beforeLogin, e);
+            throw new RuntimeException("Error retrieving users", e);
+        }
+    }
+
+    public List<UserSummary> searchUsers(String query, int limit) {
+        try {
+            return userDao.search(query, limit);
+        } catch (Exception e) {
+            logger.error("Error searching users for: {}", query, e);
+            throw new RuntimeException("Error searching users", e);
+        }
+    }
+
     public User getUserById(Long id) {
         if (id == null) {
             throw new IllegalArgumentException("User ID cannot be null");
@@ -53,71 +119,86 @@ public class UserService {
         }
     }
 
+    /**
+     * Inserts without probing first: the UNIQUE constraints on login and email
+     * reject duplicates, and only then is a single probe run to name the fields.
+     */
     public void createUser(User user) {
         validateUser(user, true);
+        user.setPassword(passwordHasher.hash(user.getPassword()));
 
         try {
-            if (userDao.findByLogin(user.getLogin()) != null) {
-                throw new IllegalArgumentException("Login already exists: " + user.getLogin());
-            }
-
-            if (userDao.findByEmail(user.getEmail()) != null) {
-                throw new IllegalArgumentException("Email already exists: " + user.getEmail());
-            }
-
             userDao.create(user);
             logger.info("User created successfully: {}", user.getLogin());
-        } catch (IllegalArgumentException e) {
-            throw e;
         } catch (Exception e) {
+            if (SqlErrors.isUniqueViolation(e)) {
+                throw duplicateUserException(user, e);
+            }
             logger.error("Error creating user: {}", user.getLogin(), e);
             throw new RuntimeException("Error creating user", e);
         }
     }
 
+    /**
+     * Writes the profile onto the stored user; the stored password is left
+     * untouched unless {@code updatePassword} is set.
+     */
     public void updateUser(User user, boolean updatePassword) {
         if (user.getId() == null) {
             throw new IllegalArgumentException("User ID is required for update");
         }
 
-        try {
-            User existingUser = userDao.findById(user.getId());
-            if (existingUser == null) {
-                throw new IllegalArgumentException("User not found with ID: " + user.getId());
-            }
+        validateUser(user, updatePassword);
+        if (updatePassword) {
+            user.setPassword(passwordHasher.hash(user.getPassword()));
+        }
 
-            if (!updatePassword || user.getPassword() == null || user.getPassword().trim().isEmpty()) {
-                user.setPassword(existingUser.getPassword());
+        int rows;
+        try {
+            rows = userDao.updateProfile(user, updatePassword);
+        } catch (Exception e) {
+            if (SqlErrors.isUniqueViolation(e)) {
+                throw duplicateUserException(user, e);
             }
+            logger.error("Error updating user: {}", user.getLogin(), e);
+            throw new RuntimeException("Error updating user", e);
+        }
 
-            validateUser(user, updatePassword);
+        if (rows == 0) {
+            throw new IllegalArgumentException("User not found with ID: " + user.getId());
+        }
+        logger.info("User updated successfully: {}", user.getLogin());
+    }
 
-            User userWithLogin = userDao.findByLogin(user.getLogin());
-            if (userWithLogin != null && !userWithLogin.getId().equals(user.getId())) {
-                throw new IllegalArgumentException("Login already exists: " + user.getLogin());
+    private DuplicateUserException duplicateUserException(User user, Exception cause) {
+        List<String> errors = new ArrayList<>();
+        for (User existing : userDao.findByLoginOrEmail(user.getLogin(), user.getEmail())) {
+            if (existing.getId().equals(user.getId())) {
+                continue;
             }
-            User userWithEmail = userDao.findByEmail(user.getEmail());
-            if (userWithEmail != null && !userWithEmail.getId().equals(user.getId())) {
-                throw new IllegalArgumentException("Email already exists: " + user.getEmail());
+            if (existing.getLogin().equals(user.getLogin()) && !errors.contains(LOGIN_EXISTS)) {
+                errors.add(LOGIN_EXISTS);
             }
+            if (existing.getEmail().equals(user.getEmail()) && !errors.contains(EMAIL_EXISTS)) {
+                errors.add(EMAIL_EXISTS);
+            }
+        }
 
-            userDao.update(user);
-            logger.info("User updated successfully: {}", user.getLogin());
-        } catch (IllegalArgumentException e) {
-            throw e;
-        } catch (Exception e) {
-            logger.error("Error updating user: {}", user.getLogin(), e);
-            throw new RuntimeException("Error updating user", e);
+        if (errors.isEmpty()) {
+            // the conflicting row is already gone; report the write failure as is
+            logger.error("Unique constraint violation without a visible conflict for: {}", user.getLogin(), cause);
+            throw new RuntimeException("Error saving user", cause);
         }
+        logger.info("Rejected duplicate user {}: {}", user.getLogin(), errors);
+        return new DuplicateUserException(errors);
     }
 
-    public void deleteUser(Long userId, User curUser) throws Exception {
+    public void deleteUser(Long userId, Long currentUserId) {
         if (userId == null) {
             throw new IllegalArgumentException("User ID cannot be null");
         }
-        if(curUser.getId() == userId)
-        {
-            throw new Exception("can't delete yoursefl");
+        if (userId.equals(currentUserId)) {
+            throw new ValidationException("You can't delete yourself");
         }
 
         try {
@@ -143,6 +224,15 @@ public class UserService {
         }
     }
 
+    public Map<String, Long> getRoleCounts() {
+        try {
+            return roleDao.countUsersByRole();
+        } catch (Exception e) {
+            logger.error("Error counting users by role", e);
+            throw new RuntimeException("Error counting users by role", e);
+        }
+    }
+
     public User getUserByLogin(String login) {
         if (login == null || login.trim().isEmpty()) {
             return null;
@@ -188,11 +278,16 @@ public class UserService {
         }
 
         Set<ConstraintViolation<User>> violations = validator.validate(user);
-        if (!violations.isEmpty()) {
-            StringBuilder sb = new StringBuilder("Validation errors: ");
-            for (ConstraintViolation<User> violation : violations) {
-                sb.append(violation.getMessage()).append("; ");
+        StringBuilder sb = new StringBuilder("Validation errors: ");
+        boolean invalid = false;
+        for (ConstraintViolation<User> violation : violations) {
+            if (!validatePassword && "password".equals(violation.getPropertyPath().toString())) {
+                continue;
             }
+            sb.append(violation.getMessage()).append("; ");
+            invalid = true;
+        }
+        if (invalid) {
             throw new IllegalArgumentException(sb.toString());
         }
 
@@ -1,6 +1,7 @@
 package com.example.tag;
 
-import com.example.model.User;
+import com.example.dao.RowSource;
+import com.example.model.UserSummary;
 import lombok.Setter;
 
 import javax.servlet.jsp.JspException;
@@ -8,13 +9,15 @@ import javax.servlet.jsp.JspWriter;
 import javax.servlet.jsp.tagext.Tag;
 import javax.servlet.jsp.tagext.TagSupport;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.Period;
 import java.util.List;
 
 @Setter
 public class UserListTag extends TagSupport implements Tag {
-    private List<User> users;
+    private List<UserSummary> users;
+    private RowSource<UserSummary> source;
     private String contextPath;
 
     @Override
@@ -22,78 +25,17 @@ public class UserListTag extends TagSupport implements Tag {
         JspWriter out = pageContext.getOut();
 
         try {
-            if (users == null || users.isEmpty()) {
-                out.write("<div class='text-center py-4'>");
-                out.write("<p class='text-muted'>No users found</p>");
-                out.write("</div>");
-                return SKIP_BODY;
-            }
-
-            out.write("<div class='user-table'>");
-            out.write("<table class='table table-bordered table-hover mb-0'>");
-            out.write("<thead>");
-            out.write("<tr>");
-            out.write("<th>Login</th>");
-            out.write("<th>First Name</th>");
-            out.write("<th>Last Name</th>");
-            out.write("<th>Age</th>");
-            out.write("<th>Role</th>");
-            out.write("<th>Actions</th>");
-            out.write("</tr>");
-            out.write("</thead>");
-            out.write("<tbody>");
-
-            for (User user : users) {
-                out.write("<tr>");
-
-                out.write("<td><strong>" + escapeHtml(user.getLogin()) + "</strong></td>");
-
-                out.write("<td>" + escapeHtml(user.getFirstName()) + "</td>");
-
-                out.write("<td>" + escapeHtml(user.getLastName()) + "</td>");
-
-                out.write("<td>");
-                if (user.getBirthday() != null) {
-                    LocalDate now = LocalDate.now();
-                    int age = Period.between(user.getBirthday(), now).getYears();
-                    out.write(String.valueOf(age));
-                } else {
-                    out.write("-");
-                }
-                out.write("</td>");
-
-                out.write("<td>");
-                if (user.getRole() != null) {
-                    String roleName = user.getRole().getName();
-                    if ("ADMIN".equals(roleName)) {
-                        out.write("<span class='badge bg-danger'>Admin</span>");
-                    } else if ("USER".equals(roleName)) {
-                        out.write("<span class='badge bg-primary'>User</span>");
-                    } else {
-                        out.write("<span class='badge bg-secondary'>" + escapeHtml(roleName) + "</span>");
-                    }
-                } else {
-                    out.write("-");
+            if (source != null) {
+                renderStream(out);
+            } else if (users == null || users.isEmpty()) {
+                writeEmpty(out);
+            } else {
+                writeTableStart(out);
+                for (UserSummary user : users) {
+                    writeRow(out, user);
                 }
-                out.write("</td>");
-
-                out.write("<td>");
-                String editUrl = contextPath + "/admin/users/edit?id=" + user.getId();
-                out.write("<a href='" + editUrl + "' class='btn-link me-2'>Edit</a>");
-
-                String deleteOnClick = "deleteUser(" + user.getId() + ", '" +
-                        escapeHtml(user.getFirstName()) + "', '" +
-                        escapeHtml(user.getLastName()) + "')";
-                out.write("<a href='#' onclick=\"" + deleteOnClick + "\" class='btn-link text-danger'>Delete</a>");
-                out.write("</td>");
-
-                out.write("</tr>");
+                writeTableEnd(out);
             }
-
-            out.write("</tbody>");
-            out.write("</table>");
-            out.write("</div>");
-
         } catch (IOException e) {
             throw new JspException("Error writing user list", e);
         }
@@ -106,6 +48,122 @@ public class UserListTag extends TagSupport implements Tag {
         return EVAL_PAGE;
     }
 
+    @Override
+    public void release() {
+        super.release();
+        users = null;
+        source = null;
+        contextPath = null;
+    }
+
+    private void renderStream(JspWriter out) throws IOException, JspException {
+        LocalDate today = LocalDate.now();
+        int[] rows = {0};
+        try {
+            source.forEach(user -> {
+                try {
+                    if (rows[0]++ == 0) {
+                        writeTableStart(out);
+                    }
+                    writeRow(out, user, today);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) cause).getCause();
+                }
+            }
+            throw new JspException("Error streaming user list", e);
+        }
+
+        if (rows[0] == 0) {
+            writeEmpty(out);
+        } else {
+            writeTableEnd(out);
+        }
+    }
+
+    private void writeEmpty(JspWriter out) throws IOException {
+        out.write("<div class='text-center py-4'>");
+        out.write("<p class='text-muted'>No users found</p>");
+        out.write("</div>");
+    }
+
+    private void writeTableStart(JspWriter out) throws IOException {
+        out.write("<div class='user-table'>");
+        out.write("<table class='table table-bordered table-hover mb-0'>");
+        out.write("<thead>");
+        out.write("<tr>");
+        out.write("<th>Login</th>");
+        out.write("<th>First Name</th>");
+        out.write("<th>Last Name</th>");
+        out.write("<th>Age</th>");
+        out.write("<th>Role</th>");
+        out.write("<th>Actions</th>");
+        out.write("</tr>");
+        out.write("</thead>");
+        out.write("<tbody>");
+    }
+
+    private void writeTableEnd(JspWriter out) throws IOException {
+        out.write("</tbody>");
+        out.write("</table>");
+        out.write("</div>");
+    }
+
+    private void writeRow(JspWriter out, UserSummary user) throws IOException {
+        writeRow(out, user, LocalDate.now());
+    }
+
+    private void writeRow(JspWriter out, UserSummary user, LocalDate today) throws IOException {
+        out.write("<tr>");
+
+        out.write("<td><strong>" + escapeHtml(user.getLogin()) + "</strong></td>");
+
+        out.write("<td>" + escapeHtml(user.getFirstName()) + "</td>");
+
+        out.write("<td>" + escapeHtml(user.getLastName()) + "</td>");
+
+        out.write("<td>");
+        if (user.getBirthday() != null) {
+            int age = Period.between(user.getBirthday(), today).getYears();
+            out.write(String.valueOf(age));
+        } else {
+            out.write("-");
+        }
+        out.write("</td>");
+
+        out.write("<td>");
+        String roleName = user.getRoleName();
+        if (roleName != null) {
+            if ("ADMIN".equals(roleName)) {
+                out.write("<span class='badge bg-danger'>Admin</span>");
+            } else if ("USER".equals(roleName)) {
+                out.write("<span class='badge bg-primary'>User</span>");
+            } else {
+                out.write("<span class='badge bg-secondary'>" + escapeHtml(roleName) + "</span>");
+            }
+        } else {
+            out.write("-");
+        }
+        out.write("</td>");
+
+        out.write("<td>");
+        String editUrl = contextPath + "/admin/users/edit?id=" + user.getId();
+        out.write("<a href='" + editUrl + "' class='btn-link me-2'>Edit</a>");
+
+        String deleteOnClick = "deleteUser(" + user.getId() + ", '" +
+                escapeHtml(user.getFirstName()) + "', '" +
+                escapeHtml(user.getLastName()) + "')";
+        out.write("<a href='#' onclick=\"" + deleteOnClick + "\" class='btn-link text-danger'>Delete</a>");
+        out.write("</td>");
+
+        out.write("</tr>");
+    }
+
     private String escapeHtml(String input) {
         if (input == null) {
             return "";
@@ -116,4 +174,4 @@ public class UserListTag extends TagSupport implements Tag {
                 .replace("\"", "&quot;")
                 .replace("'", "&#x27;");
     }
-}
\ No newline at end of file
+}
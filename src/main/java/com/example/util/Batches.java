@@ -0,0 +1,29 @@
+package com.example.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public final class Batches {
+    private Batches() {
+    }
+
+    public static <T> List<List<T>> partition(Collection<T> items, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(Math.min(batchSize, items.size()));
+        for (T item : items) {
+            chunk.add(item);
+            if (chunk.size() == batchSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(batchSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+}
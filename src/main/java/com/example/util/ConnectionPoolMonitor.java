@@ -0,0 +1,304 @@
+package com.example.util;
+
+import com.example.metrics.LatencyHistogram;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.dbcp2.PoolingConnection;
+import org.apache.commons.pool2.KeyedObjectPool;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Telemetry for connections borrowed through {@link DatabaseManager#getConnection()}:
+ * borrow wait times, borrows, timeouts and threads waiting, plus the pool's own
+ * active and idle counts.
+ * <p>
+ * Utilization (active / maxTotal) is checked on every borrow against
+ * {@code db.pool.alarmLevels} (percentages); crossing a level upward logs a
+ * warning once, and dropping back below the lowest level logs that it recovered.
+ * <p>
+ * With {@code db.pool.leakDetectionMillis} above zero, each borrowed connection is
+ * wrapped to remember its borrowing thread and stack until it is closed, and
+ * {@link #reportLeaks()} logs every connection held longer than that.
+ * <p>
+ * DBCP keeps a prepared statement pool per physical connection and drops it with
+ * the connection; {@link MonitoredDataSource} reports each connection as it opens
+ * and closes, so statement hits, misses and evictions add up across the pool and
+ * never go backwards.
+ */
+public class ConnectionPoolMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolMonitor.class);
+    private static final ConnectionPoolMonitor instance = new ConnectionPoolMonitor();
+
+    private final LatencyHistogram borrowWait = new LatencyHistogram();
+    private final LongAdder borrowFailures = new LongAdder();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger alarmLevel = new AtomicInteger(-1);
+    private final int[] alarmLevels;
+    private final long leakThresholdMillis;
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+    private final LongAdder leaksReported = new LongAdder();
+    private final Set<GenericKeyedObjectPool<?, ?>> statementPools = ConcurrentHashMap.newKeySet();
+    private final LongAdder closedStatementBorrows = new LongAdder();
+    private final LongAdder closedStatementsPrepared = new LongAdder();
+    private final LongAdder closedStatementsEvicted = new LongAdder();
+
+    protected ConnectionPoolMonitor() {
+        this.alarmLevels = Arrays.stream(DatabaseManager.getProperties()
+                        .getProperty("db.pool.alarmLevels", "75,90,100").split(","))
+                .map(String::trim)
+                .filter(level -> !level.isEmpty())
+                .mapToInt(Integer::parseInt)
+                .sorted()
+                .toArray();
+        this.leakThresholdMillis = DatabaseManager.getIntProperty("db.pool.leakDetectionMillis", 0);
+    }
+
+    public static ConnectionPoolMonitor getInstance() {
+        return instance;
+    }
+
+    /**
+     * Borrows a connection from {@code dataSource}, timing the wait.
+     */
+    public Connection borrow(BasicDataSource dataSource) throws SQLException {
+        waiting.incrementAndGet();
+        long start = System.nanoTime();
+        Connection connection;
+        try {
+            connection = dataSource.getConnection();
+        } catch (SQLException e) {
+            borrowFailures.increment();
+            logger.error("Could not borrow a connection after {} ms: {} active of {}",
+                    (System.nanoTime() - start) / 1_000_000, dataSource.getNumActive(), dataSource.getMaxTotal());
+            throw e;
+        } finally {
+            waiting.decrementAndGet();
+            borrowWait.recordNanos(System.nanoTime() - start);
+        }
+
+        checkUtilization(dataSource.getNumActive(), dataSource.getMaxTotal());
+        return leakThresholdMillis > 0 ? track(connection) : connection;
+    }
+
+    /**
+     * Logs each connection held past the leak threshold, once, with the stack
+     * that borrowed it; returns how many are currently held that long.
+     */
+    public int reportLeaks() {
+        if (leakThresholdMillis <= 0) {
+            return 0;
+        }
+        List<Lease> leaked = getLeaks();
+        for (Lease lease : leaked) {
+            if (!lease.reported) {
+                lease.reported = true;
+                leaksReported.increment();
+                logger.warn("Connection borrowed by thread {} has been held for {} ms", lease.thread,
+                        lease.heldMillis(), lease.borrowedAt);
+            }
+        }
+        return leaked.size();
+    }
+
+    /**
+     * Connections held past the leak threshold, longest held first.
+     */
+    public List<Lease> getLeaks() {
+        List<Lease> leaked = new ArrayList<>();
+        if (leakThresholdMillis > 0) {
+            for (Lease lease : leases) {
+                if (lease.heldMillis() >= leakThresholdMillis) {
+                    leaked.add(lease);
+                }
+            }
+            leaked.sort(Comparator.comparingLong(Lease::heldMillis).reversed());
+        }
+        return leaked;
+    }
+
+    /**
+     * Starts counting the statement pool of a newly opened physical connection.
+     */
+    void opened(PoolableConnection connection) {
+        GenericKeyedObjectPool<?, ?> pool = statementPool(connection);
+        if (pool != null) {
+            statementPools.add(pool);
+        }
+    }
+
+    /**
+     * Folds the statement pool of a physical connection about to close into the totals.
+     */
+    void closing(PoolableConnection connection) {
+        GenericKeyedObjectPool<?, ?> pool = statementPool(connection);
+        if (pool != null && statementPools.remove(pool)) {
+            closedStatementBorrows.add(pool.getBorrowedCount());
+            closedStatementsPrepared.add(pool.getCreatedCount());
+            closedStatementsEvicted.add(pool.getDestroyedCount());
+        }
+    }
+
+    /**
+     * Prepared statements served from a connection's statement pool.
+     */
+    public long getStatementHits() {
+        long borrows = closedStatementBorrows.sum();
+        long prepared = closedStatementsPrepared.sum();
+        for (GenericKeyedObjectPool<?, ?> pool : statementPools) {
+            prepared += pool.getCreatedCount();
+            borrows += pool.getBorrowedCount();
+        }
+        // a borrow in flight is counted as created before it is counted as borrowed
+        return Math.max(0, borrows - prepared);
+    }
+
+    /**
+     * Prepared statements the driver had to prepare because none was pooled.
+     */
+    public long getStatementMisses() {
+        long prepared = closedStatementsPrepared.sum();
+        for (GenericKeyedObjectPool<?, ?> pool : statementPools) {
+            prepared += pool.getCreatedCount();
+        }
+        return prepared;
+    }
+
+    /**
+     * Pooled statements closed to stay within {@code db.statementCache.size}, or
+     * because they failed; statements closed with their connection are not counted.
+     */
+    public long getStatementEvictions() {
+        long evicted = closedStatementsEvicted.sum();
+        for (GenericKeyedObjectPool<?, ?> pool : statementPools) {
+            evicted += pool.getDestroyedCount();
+        }
+        return evicted;
+    }
+
+    public LatencyHistogram getBorrowWait() {
+        return borrowWait;
+    }
+
+    public long getBorrowFailures() {
+        return borrowFailures.sum();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public int getTrackedConnections() {
+        return leases.size();
+    }
+
+    public long getLeaksReported() {
+        return leaksReported.sum();
+    }
+
+    public long getLeakThresholdMillis() {
+        return leakThresholdMillis;
+    }
+
+    private static GenericKeyedObjectPool<?, ?> statementPool(PoolableConnection connection) {
+        Connection delegate = connection.getDelegate();
+        if (delegate instanceof PoolingConnection) {
+            KeyedObjectPool<?, ?> pool = ((PoolingConnection) delegate).getStatementPool();
+            if (pool instanceof GenericKeyedObjectPool) {
+                return (GenericKeyedObjectPool<?, ?>) pool;
+            }
+        }
+        return null;
+    }
+
+    private void checkUtilization(int active, int maxTotal) {
+        if (maxTotal <= 0 || alarmLevels.length == 0) {
+            return;
+        }
+        int percent = active * 100 / maxTotal;
+        int level = -1;
+        for (int i = 0; i < alarmLevels.length && percent >= alarmLevels[i]; i++) {
+            level = i;
+        }
+
+        int previous = alarmLevel.get();
+        if (level != previous && alarmLevel.compareAndSet(previous, level)) {
+            if (level > previous) {
+                logger.warn("Connection pool at {}% ({} of {} active), above the {}% alarm level",
+                        percent, active, maxTotal, alarmLevels[level]);
+            } else if (level < 0) {
+                logger.info("Connection pool back to {}% ({} of {} active)", percent, active, maxTotal);
+            }
+        }
+    }
+
+    private Connection track(Connection connection) {
+        Lease lease = new Lease(connection);
+        leases.add(lease);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, lease);
+    }
+
+    /**
+     * One borrowed connection: who took it, when, and from where.
+     */
+    public final class Lease implements InvocationHandler {
+        private final Connection connection;
+        private final String thread = Thread.currentThread().getName();
+        private final long borrowedNanos = System.nanoTime();
+        private final Throwable borrowedAt = new Throwable("Connection borrowed here");
+        private volatile boolean reported;
+
+        private Lease(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    leases.remove(this);
+                    break;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        public long heldMillis() {
+            return (System.nanoTime() - borrowedNanos) / 1_000_000;
+        }
+
+        public StackTraceElement[] getBorrowStack() {
+            return borrowedAt.getStackTrace();
+        }
+    }
+}
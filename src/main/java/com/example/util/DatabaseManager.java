@@ -7,13 +7,17 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Properties;
 
 public class DatabaseManager {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseManager.class);
     private static DatabaseManager instance;
     private static BasicDataSource dataSource;
+    private static Properties properties;
 
     protected DatabaseManager() {
     }
@@ -26,9 +30,9 @@ public class DatabaseManager {
     }
     public static synchronized BasicDataSource getDataSource() {
         if (dataSource == null) {
-            Properties props = loadDatabaseProperties();
+            Properties props = getProperties();
 
-            BasicDataSource basicDataSource = new BasicDataSource();
+            BasicDataSource basicDataSource = new MonitoredDataSource();
             basicDataSource.setDriverClassName(props.getProperty("db.driver"));
             basicDataSource.setUrl(props.getProperty("db.url"));
             basicDataSource.setUsername(props.getProperty("db.username"));
@@ -37,7 +41,9 @@ public class DatabaseManager {
             basicDataSource.setMinIdle(Integer.parseInt(props.getProperty("db.pool.minIdle", "5")));
             basicDataSource.setMaxIdle(Integer.parseInt(props.getProperty("db.pool.maxIdle", "10")));
             basicDataSource.setMaxTotal(Integer.parseInt(props.getProperty("db.pool.maxTotal", "20")));
-            basicDataSource.setMaxOpenPreparedStatements(10);
+            // each pooled connection keeps its prepared statements open, for the JDBC DAOs and Hibernate alike
+            basicDataSource.setPoolPreparedStatements(true);
+            basicDataSource.setMaxOpenPreparedStatements(Integer.parseInt(props.getProperty("db.statementCache.size", "32")));
             basicDataSource.setDefaultAutoCommit(false);
 
             basicDataSource.setMaxWait(java.time.Duration.ofMillis(Long.parseLong(props.getProperty("db.pool.maxWaitMillis", "30000"))));
@@ -52,7 +58,56 @@ public class DatabaseManager {
     }
 
     public Connection getConnection() throws SQLException {
-        return getDataSource().getConnection();
+        return ConnectionPoolMonitor.getInstance().borrow(getDataSource());
+    }
+
+    public static synchronized Properties getProperties() {
+        if (properties == null) {
+            properties = loadDatabaseProperties();
+        }
+        return properties;
+    }
+
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = getProperties().getProperty(key);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    /**
+     * Runs a classpath SQL script once per database and records it in
+     * {@code schema_migrations}, for setup too costly to repeat in the per-connection
+     * {@code INIT} scripts.
+     */
+    public static void migrate(String script) {
+        try (Connection connection = getInstance().getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                        "name VARCHAR(100) PRIMARY KEY, applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            }
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT 1 FROM schema_migrations WHERE name = ?")) {
+                select.setString(1, script);
+                try (ResultSet rs = select.executeQuery()) {
+                    if (rs.next()) {
+                        connection.commit();
+                        return;
+                    }
+                }
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("RUNSCRIPT FROM 'classpath:" + script + "'");
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO schema_migrations (name) VALUES (?)")) {
+                insert.setString(1, script);
+                insert.executeUpdate();
+            }
+            connection.commit();
+            logger.info("Applied database migration {}", script);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error applying database migration " + script, e);
+        }
     }
 
     private static Properties loadDatabaseProperties() {
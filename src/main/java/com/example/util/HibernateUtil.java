@@ -1,29 +1,65 @@
 package com.example.util;
 
+import com.example.metrics.SqlStatementInspector;
 import com.example.model.Role;
 import com.example.model.User;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.context.internal.ManagedSessionContext;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.stat.Statistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 import lombok.Getter;
 
 public class HibernateUtil {
     private static final Logger logger = LoggerFactory.getLogger(HibernateUtil.class);
+    private static final String CONFIG_RESOURCE = "hibernate.cfg.xml";
+    private static final ThreadLocal<List<Runnable>> afterCommitCallbacks = new ThreadLocal<>();
     @Getter
     private static SessionFactory sessionFactory;
 
+    /**
+     * Connections come from the shared {@link DatabaseManager} pool. A
+     * {@code hibernate.cfg.xml} on the classpath is still applied first, so it can
+     * add settings, but it no longer has to describe a connection. Startup fails
+     * if the SessionFactory cannot be built rather than leaving it null.
+     */
     static {
         try {
-            Configuration configuration = new Configuration().configure("hibernate.cfg.xml");
+            Configuration configuration = new Configuration();
+            if (HibernateUtil.class.getClassLoader().getResource(CONFIG_RESOURCE) != null) {
+                configuration.configure(CONFIG_RESOURCE);
+            }
+            configuration.addAnnotatedClass(User.class);
+            configuration.addAnnotatedClass(Role.class);
+            configuration.setProperty(AvailableSettings.CONNECTION_PROVIDER, SharedPoolConnectionProvider.class.getName());
+            // the pool hands out connections with auto-commit already off
+            configuration.setProperty(AvailableSettings.CONNECTION_PROVIDER_DISABLES_AUTOCOMMIT, "true");
+            configuration.setProperty(AvailableSettings.DIALECT, H2Dialect.class.getName());
+            configuration.setProperty(AvailableSettings.STATEMENT_BATCH_SIZE,
+                    String.valueOf(DatabaseManager.getIntProperty("db.batch.size", 500)));
+            configuration.setProperty(AvailableSettings.ORDER_UPDATES, "true");
+            configuration.setProperty(AvailableSettings.CURRENT_SESSION_CONTEXT_CLASS, "managed");
+            configuration.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+            configuration.setProperty(AvailableSettings.USE_QUERY_CACHE, "true");
+            configuration.setProperty(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            configuration.setProperty("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+            configuration.setProperty("hibernate.javax.cache.uri", "ehcache.xml");
+            configuration.setProperty(AvailableSettings.GENERATE_STATISTICS, "true");
+            configuration.setProperty(AvailableSettings.STATEMENT_INSPECTOR, SqlStatementInspector.class.getName());
             sessionFactory = configuration.buildSessionFactory();
 
             logger.info("Hibernate configuration loaded");
         } catch (Exception e) {
-            logger.error("Failed to initialize hibernate session successfully");
+            logger.error("Failed to build the Hibernate SessionFactory", e);
+            throw new IllegalStateException("Error building Hibernate SessionFactory", e);
         }
     }
 
@@ -35,6 +71,153 @@ public class HibernateUtil {
         return sessionFactory.openSession();
     }
 
+    public static boolean hasCurrentSession() {
+        return sessionFactory != null && ManagedSessionContext.hasBind(sessionFactory);
+    }
+
+    /**
+     * Opens a session and binds it to the calling thread, so {@link #getCurrentSession()}
+     * and the {@code in*} helpers use it until {@link #unbindSession(boolean)}.
+     */
+    public static Session bindSession() {
+        Session session = sessionFactory.openSession();
+        ManagedSessionContext.bind(session);
+        afterCommitCallbacks.set(new ArrayList<>());
+        return session;
+    }
+
+    /**
+     * Unbinds and closes the thread's session. Its transaction is committed when
+     * {@code commit} is set and nothing marked it rollback-only, otherwise rolled back.
+     * Callbacks registered through {@link #afterCommit(Runnable)} run only on commit.
+     */
+    public static void unbindSession(boolean commit) {
+        List<Runnable> callbacks = afterCommitCallbacks.get();
+        afterCommitCallbacks.remove();
+        Session session = ManagedSessionContext.unbind(sessionFactory);
+        if (session == null) {
+            return;
+        }
+
+        boolean committed = false;
+        try {
+            Transaction transaction = session.getTransaction();
+            if (transaction.isActive()) {
+                if (commit && !transaction.getRollbackOnly()) {
+                    transaction.commit();
+                    committed = true;
+                } else {
+                    transaction.rollback();
+                }
+            } else {
+                committed = commit;
+            }
+        } finally {
+            session.close();
+        }
+
+        if (committed && callbacks != null) {
+            callbacks.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Runs read work in the thread's session, beginning its transaction on first use,
+     * or in a short-lived session of its own when none is bound.
+     */
+    public static <T> T inSession(Function<Session, T> work) {
+        if (hasCurrentSession()) {
+            Session session = getCurrentSession();
+            beginIfInactive(session);
+            return work.apply(session);
+        }
+
+        try (Session session = openSession()) {
+            return work.apply(session);
+        }
+    }
+
+    /**
+     * Runs write work in the thread's session and flushes it, leaving the commit to
+     * whoever bound the session; a failure marks the transaction rollback-only.
+     * Without a bound session the work gets its own session and transaction.
+     */
+    public static <T> T inTransaction(Function<Session, T> work) {
+        if (hasCurrentSession()) {
+            Session session = getCurrentSession();
+            Transaction transaction = beginIfInactive(session);
+            try {
+                T result = work.apply(session);
+                session.flush();
+                return result;
+            } catch (RuntimeException e) {
+                transaction.markRollbackOnly();
+                // a failed flush leaves the context unusable for later queries in this request
+                session.clear();
+                throw e;
+            }
+        }
+
+        try (Session session = openSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                T result = work.apply(session);
+                transaction.commit();
+                return result;
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Runs {@code callback} once the current work is committed: when the request
+     * transaction commits if a session is bound, otherwise straight away.
+     */
+    public static void afterCommit(Runnable callback) {
+        List<Runnable> callbacks = afterCommitCallbacks.get();
+        if (callbacks != null && hasCurrentSession()) {
+            callbacks.add(callback);
+        } else {
+            callback.run();
+        }
+    }
+
+    /**
+     * True while the bound session holds writes that the request transaction has
+     * not committed yet, i.e. once something has queued an {@link #afterCommit} callback.
+     * Shared caches must not be filled from such a session.
+     */
+    public static boolean hasUncommittedWrites() {
+        List<Runnable> callbacks = afterCommitCallbacks.get();
+        return callbacks != null && !callbacks.isEmpty() && hasCurrentSession();
+    }
+
+    private static Transaction beginIfInactive(Session session) {
+        Transaction transaction = session.getTransaction();
+        if (!transaction.isActive()) {
+            transaction.begin();
+        }
+        return transaction;
+    }
+
+    /**
+     * Session factory statistics, including second-level, natural-id and query
+     * cache hit and miss counts.
+     */
+    public static Statistics getStatistics() {
+        return sessionFactory.getStatistics();
+    }
+
+    /**
+     * Drops cached query results after writes Hibernate did not see, such as plain
+     * JDBC batches run through {@code Session.doWork}.
+     */
+    public static void evictQueryResults() {
+        sessionFactory.getCache().evictQueryRegions();
+    }
+
     public static void closeSessionFactory() {
         if (sessionFactory != null && !sessionFactory.isClosed()) {
             sessionFactory.close();
@@ -0,0 +1,89 @@
+package com.example.util;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.dbcp2.PoolableConnectionFactory;
+import org.apache.commons.pool2.DestroyMode;
+import org.apache.commons.pool2.ObjectPool;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.AbandonedConfig;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+import java.sql.SQLException;
+
+/**
+ * A {@link BasicDataSource} that tells {@link ConnectionPoolMonitor} about each
+ * physical connection it opens and closes, so the prepared statement pools DBCP
+ * keeps per connection can be counted across the pool.
+ */
+class MonitoredDataSource extends BasicDataSource {
+
+    @Override
+    protected GenericObjectPool<PoolableConnection> createObjectPool(PoolableConnectionFactory factory,
+            GenericObjectPoolConfig<PoolableConnection> poolConfig, AbandonedConfig abandonedConfig) {
+        PoolableConnectionFactory monitored = new MonitoredConnectionFactory(factory);
+        if (abandonedConfig != null
+                && (abandonedConfig.getRemoveAbandonedOnBorrow() || abandonedConfig.getRemoveAbandonedOnMaintenance())) {
+            return new GenericObjectPool<>(monitored, poolConfig, abandonedConfig);
+        }
+        return new GenericObjectPool<>(monitored, poolConfig);
+    }
+
+    /**
+     * Hands every call to the factory {@link BasicDataSource} configured. It has to be
+     * a {@link PoolableConnectionFactory} itself, because the pooling data source
+     * casts the pool's factory to one to reach {@link #getPool()}.
+     */
+    private static final class MonitoredConnectionFactory extends PoolableConnectionFactory {
+        private final PoolableConnectionFactory delegate;
+
+        private MonitoredConnectionFactory(PoolableConnectionFactory delegate) {
+            super(delegate.getConnectionFactory(), delegate.getDataSourceJmxName());
+            this.delegate = delegate;
+        }
+
+        @Override
+        public PooledObject<PoolableConnection> makeObject() throws SQLException {
+            PooledObject<PoolableConnection> pooled = delegate.makeObject();
+            ConnectionPoolMonitor.getInstance().opened(pooled.getObject());
+            return pooled;
+        }
+
+        @Override
+        public void destroyObject(PooledObject<PoolableConnection> pooled) throws SQLException {
+            destroyObject(pooled, DestroyMode.NORMAL);
+        }
+
+        @Override
+        public void destroyObject(PooledObject<PoolableConnection> pooled, DestroyMode mode) throws SQLException {
+            ConnectionPoolMonitor.getInstance().closing(pooled.getObject());
+            delegate.destroyObject(pooled, mode);
+        }
+
+        @Override
+        public boolean validateObject(PooledObject<PoolableConnection> pooled) {
+            return delegate.validateObject(pooled);
+        }
+
+        @Override
+        public void activateObject(PooledObject<PoolableConnection> pooled) throws SQLException {
+            delegate.activateObject(pooled);
+        }
+
+        @Override
+        public void passivateObject(PooledObject<PoolableConnection> pooled) throws SQLException {
+            delegate.passivateObject(pooled);
+        }
+
+        @Override
+        public ObjectPool<PoolableConnection> getPool() {
+            return delegate.getPool();
+        }
+
+        @Override
+        public void setPool(ObjectPool<PoolableConnection> pool) {
+            delegate.setPool(pool);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.util;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public final class NamedStatement {
+    private final String name;
+    private final String sql;
+    private final boolean returnGeneratedKeys;
+
+    public NamedStatement(String name, String sql, boolean returnGeneratedKeys) {
+        this.name = name;
+        this.sql = sql;
+        this.returnGeneratedKeys = returnGeneratedKeys;
+    }
+}
@@ -1,23 +1,63 @@
 package com.example.util;
 
 import com.example.model.User;
+import com.example.model.UserPrincipal;
+import com.example.security.AuthMode;
+import com.example.security.SessionRegistry;
+import com.example.security.TokenService;
+
+import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
+/**
+ * The signed-in user of a request. In {@link AuthMode#SESSION} it lives in the
+ * HttpSession; in {@link AuthMode#TOKEN} it is read from a signed cookie. Either
+ * way it is resolved once per request and kept as a request attribute of the same
+ * name, so JSPs can use {@code ${currentUser}} in both modes.
+ */
 public class SessionUtils {
-    private static final String USER_SESSION_KEY = "currentUser";
+    private static final String TOKEN_COOKIE = "AUTH_TOKEN";
 
-    public static void setCurrentUser(HttpServletRequest request, User user) {
-        HttpSession session = request.getSession();
-        session.setAttribute(USER_SESSION_KEY, user);
+    /**
+     * Keeps only a {@link UserPrincipal} of {@code user} in the session, or sends it as a token cookie.
+     */
+    public static void setCurrentUser(HttpServletRequest request, HttpServletResponse response, User user) {
+        UserPrincipal principal = UserPrincipal.from(user);
+        if (AuthMode.current() == AuthMode.TOKEN) {
+            TokenService tokenService = TokenService.getInstance();
+            response.addCookie(tokenCookie(request, tokenService.issue(principal),
+                    (int) (tokenService.getTtlMillis() / 1000)));
+        } else {
+            SessionRegistry.getInstance().register(request.getSession(), principal);
+        }
+        request.setAttribute(SessionRegistry.PRINCIPAL_ATTRIBUTE, principal);
     }
 
-    public static User getCurrentUser(HttpServletRequest request) {
-        HttpSession session = request.getSession(false);
-        if (session != null) {
-            return (User) session.getAttribute(USER_SESSION_KEY);
+    /**
+     * Resolves the principal on the first call of a request and answers later
+     * calls from the request attribute.
+     */
+    public static UserPrincipal getCurrentUser(HttpServletRequest request) {
+        Object resolved = request.getAttribute(SessionRegistry.PRINCIPAL_ATTRIBUTE);
+        if (resolved instanceof UserPrincipal) {
+            return (UserPrincipal) resolved;
         }
-        return null;
+
+        UserPrincipal principal = null;
+        if (AuthMode.current() == AuthMode.TOKEN) {
+            principal = TokenService.getInstance().verify(readToken(request));
+        } else {
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                principal = (UserPrincipal) session.getAttribute(SessionRegistry.PRINCIPAL_ATTRIBUTE);
+            }
+        }
+        if (principal != null) {
+            request.setAttribute(SessionRegistry.PRINCIPAL_ATTRIBUTE, principal);
+        }
+        return principal;
     }
 
     public static boolean isLoggedIn(HttpServletRequest request) {
@@ -25,15 +65,44 @@ public class SessionUtils {
     }
 
     public static boolean isAdmin(HttpServletRequest request) {
-        User user = getCurrentUser(request);
-        return user != null && user.getRole() != null &&
-                "ADMIN".equals(user.getRole().getName());
+        UserPrincipal user = getCurrentUser(request);
+        return user != null && user.isAdmin();
     }
 
-    public static void logout(HttpServletRequest request) {
+    public static void logout(HttpServletRequest request, HttpServletResponse response) {
+        if (AuthMode.current() == AuthMode.TOKEN) {
+            String token = readToken(request);
+            if (token != null) {
+                TokenService.getInstance().revoke(token);
+                response.addCookie(tokenCookie(request, "", 0));
+            }
+        }
+        request.removeAttribute(SessionRegistry.PRINCIPAL_ATTRIBUTE);
+
         HttpSession session = request.getSession(false);
         if (session != null) {
             session.invalidate();
         }
     }
-}
\ No newline at end of file
+
+    private static String readToken(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (TOKEN_COOKIE.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Cookie tokenCookie(HttpServletRequest request, String value, int maxAgeSeconds) {
+        Cookie cookie = new Cookie(TOKEN_COOKIE, value);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(request.isSecure());
+        cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+        cookie.setMaxAge(maxAgeSeconds);
+        return cookie;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.util;
+
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands Hibernate connections from the {@link DatabaseManager} pool, so the
+ * Hibernate and JDBC DAOs share one pool, one set of limits and the
+ * {@link ConnectionPoolMonitor} telemetry.
+ */
+public class SharedPoolConnectionProvider implements ConnectionProvider {
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return DatabaseManager.getInstance().getConnection();
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    /**
+     * Hibernate declares the parameter as a raw {@code Class}, so it has to stay raw
+     * here; a {@code Class<?>} would clash with it instead of overriding it.
+     */
+    @Override
+    @SuppressWarnings("rawtypes")
+    public boolean isUnwrappableAs(Class unwrapType) {
+        Class<?> type = unwrapType;
+        return type.isAssignableFrom(getClass()) || type.isAssignableFrom(DataSource.class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isAssignableFrom(getClass())) {
+            return (T) this;
+        }
+        if (unwrapType.isAssignableFrom(DataSource.class)) {
+            return (T) DatabaseManager.getDataSource();
+        }
+        throw new IllegalArgumentException("Cannot unwrap " + getClass().getName() + " as " + unwrapType.getName());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.util;
+
+import java.sql.SQLException;
+
+public final class SqlErrors {
+    private static final String UNIQUE_VIOLATION_STATE = "23505";
+
+    private SqlErrors() {
+    }
+
+    /**
+     * True when a unique or primary key constraint rejected the statement, however
+     * deeply the driver exception is wrapped by Hibernate or the DAO layer.
+     */
+    public static boolean isUniqueViolation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && UNIQUE_VIOLATION_STATE.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+}
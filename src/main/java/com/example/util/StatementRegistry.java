@@ -0,0 +1,89 @@
+package com.example.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds every SQL statement a DAO uses under a stable name. Statements are
+ * validated once against the database before first use, so a typo in a query
+ * fails DAO construction at startup instead of the first request that hits it.
+ */
+public class StatementRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(StatementRegistry.class);
+    private static final StatementRegistry instance = new StatementRegistry();
+
+    private final Map<String, NamedStatement> statements = new ConcurrentHashMap<>();
+    private final Set<String> validated = ConcurrentHashMap.newKeySet();
+
+    protected StatementRegistry() {
+    }
+
+    public static StatementRegistry getInstance() {
+        return instance;
+    }
+
+    public NamedStatement register(String name, String sql, boolean returnGeneratedKeys) {
+        NamedStatement statement = new NamedStatement(name, sql, returnGeneratedKeys);
+        NamedStatement existing = statements.putIfAbsent(name, statement);
+        if (existing == null) {
+            return statement;
+        }
+        if (!existing.getSql().equals(sql) || existing.isReturnGeneratedKeys() != returnGeneratedKeys) {
+            throw new IllegalStateException("Statement '" + name + "' is already registered with different SQL");
+        }
+        return existing;
+    }
+
+    public NamedStatement get(String name) {
+        NamedStatement statement = statements.get(name);
+        if (statement == null) {
+            throw new IllegalArgumentException("Unknown statement: " + name);
+        }
+        return statement;
+    }
+
+    public Collection<NamedStatement> getAll() {
+        return statements.values();
+    }
+
+    public void validate(DatabaseManager databaseManager) {
+        List<NamedStatement> pending = new ArrayList<>();
+        for (NamedStatement statement : statements.values()) {
+            if (!validated.contains(statement.getName())) {
+                pending.add(statement);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<String> failures = new ArrayList<>();
+        try (Connection connection = databaseManager.getConnection()) {
+            for (NamedStatement statement : pending) {
+                try (PreparedStatement ignored = connection.prepareStatement(statement.getSql())) {
+                    validated.add(statement.getName());
+                } catch (SQLException e) {
+                    logger.error("Invalid statement '{}': {}", statement.getName(), statement.getSql(), e);
+                    failures.add(statement.getName() + " (" + e.getMessage() + ")");
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to validate SQL statements", e);
+        }
+
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Invalid SQL statements: " + failures);
+        }
+        logger.info("Validated {} SQL statements", pending.size());
+    }
+}
@@ -1,24 +1,24 @@
 package com.example.validator;
 
 import com.example.model.User;
-import com.example.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
-import com.example.exceptions.DatabaseReadException;
 
 public class UserValidator {
     private static final Pattern EMAIL_PATTERN =
             Pattern.compile("^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$");
 
-    private final UserService userService = new UserService();
     protected static final Logger logger = LoggerFactory.getLogger(UserValidator.class);
 
-    private final String LOGIN_NOT_UNIQUE = "Unable to verify login uniqueness. Please try again.";
-
+    /**
+     * Field rules only. Login and email uniqueness is enforced by the database on
+     * write and reported by {@link com.example.service.UserService} as a
+     * {@link com.example.exceptions.DuplicateUserException}.
+     */
     public List<String> validateForCreate(User user) {
         List<String> errors = new ArrayList<>();
         validateBasicFields(user, errors);
@@ -29,30 +29,6 @@ public class UserValidator {
             errors.add("Password must be at least 3 characters long");
         }
 
-        try {
-            if (userService.getUserByLogin(user.getLogin()) != null) {
-                errors.add("Login already exists");
-            }
-        } catch (DatabaseReadException e) {
-            logger.error("Database error: {}", e.getMessage(), e);
-            errors.add("Unable to verify login uniqueness. Please try again.");
-        } catch (RuntimeException e) {
-            logger.error("Unexpected error while checking login during create: {}", e.getMessage(), e);
-            errors.add("System error. Please try again.");
-        }
-
-        try {
-            if (userService.getUserByEmail(user.getEmail()) != null) {
-                errors.add("Email already exists");
-            }
-        } catch (DatabaseReadException e) {
-            logger.error("Database error while checking email during create: {}", e.getMessage(), e);
-            errors.add("Unable to verify email uniqueness. Please try again.");
-        } catch (RuntimeException e) {
-            logger.error("Unexpected error while checking email during create: {}", e.getMessage(), e);
-            errors.add("System error. Please try again.");
-        }
-
         return errors;
     }
 
@@ -74,31 +50,6 @@ public class UserValidator {
             }
         }
 
-        try {
-            User existingUser = userService.getUserByLogin(user.getLogin());
-            if (existingUser != null && !existingUser.getId().equals(user.getId())) {
-                errors.add("Login already exists");
-            }
-        } catch (DatabaseReadException e) {
-            logger.error("Database error while checking login during update: {}", e.getMessage(), e);
-            errors.add(LOGIN_NOT_UNIQUE);
-        } catch (RuntimeException e) {
-            logger.error("Unexpected error while checking login during update: {}", e.getMessage(), e);
-            errors.add("System error. Please try again.");
-        }
-
-        try {
-            User existingUser = userService.getUserByEmail(user.getEmail());
-            if (existingUser != null && !existingUser.getId().equals(user.getId())) {
-                errors.add("Email already exists");
-            }
-        } catch (DatabaseReadException e) {
-            logger.error("Database error while checking email during update: {}", e.getMessage(), e);
-            errors.add(LOGIN_NOT_UNIQUE);
-        } catch (RuntimeException e) {
-            logger.error("Unexpected error while checking email during update: {}", e.getMessage(), e);
-            errors.add("System error. Please try again.");
-        }
         return errors;
     }
 
@@ -0,0 +1,8 @@
+-- search: word matches use H2's native full-text index. Applied once per database
+-- at startup (DatabaseManager.migrate), not by the per-connection INIT scripts.
+-- The index is kept current by triggers, so every insert, update and delete on
+-- users, including import batches, also rewrites its FT.ROWS and FT.MAP entries.
+CREATE ALIAS IF NOT EXISTS FT_INIT FOR 'org.h2.fulltext.FullText.init';
+CALL FT_INIT();
+SELECT FT_CREATE_INDEX('PUBLIC', 'USERS', 'LOGIN,EMAIL,FIRST_NAME,LAST_NAME') FROM DUAL
+    WHERE NOT EXISTS (SELECT 1 FROM FT.INDEXES WHERE SCHEMA = 'PUBLIC' AND "TABLE" = 'USERS');
@@ -16,4 +16,20 @@ CREATE TABLE IF NOT EXISTS users (
     );
 
 MERGE INTO roles (id, name) VALUES (1, 'ADMIN');
-MERGE INTO roles (id, name) VALUES (2, 'USER');
\ No newline at end of file
+MERGE INTO roles (id, name) VALUES (2, 'USER');
+
+-- search: prefix matches ignore case by seeking B-tree indexes on lower-cased copies
+-- of each column; H2 cannot index LOWER(column) directly
+ALTER TABLE users ADD COLUMN IF NOT EXISTS login_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(login));
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_lower VARCHAR(100) GENERATED ALWAYS AS (LOWER(email));
+ALTER TABLE users ADD COLUMN IF NOT EXISTS first_name_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(first_name));
+ALTER TABLE users ADD COLUMN IF NOT EXISTS last_name_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(last_name));
+DROP INDEX IF EXISTS idx_users_first_name;
+DROP INDEX IF EXISTS idx_users_last_name;
+CREATE INDEX IF NOT EXISTS idx_users_login_lower ON users(login_lower);
+CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users(email_lower);
+CREATE INDEX IF NOT EXISTS idx_users_first_name_lower ON users(first_name_lower);
+CREATE INDEX IF NOT EXISTS idx_users_last_name_lower ON users(last_name_lower);
+
+-- the full-text index for word matches is created once by migrations/fulltext.sql
+
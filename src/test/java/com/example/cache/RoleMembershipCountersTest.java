@@ -0,0 +1,186 @@
+package com.example.cache;
+
+import com.example.dao.BaseDaoTest;
+import com.example.dao.HibernateRoleDao;
+import com.example.dao.HibernateUserDao;
+import com.example.model.Role;
+import com.example.model.User;
+import com.example.util.HibernateUtil;
+import com.example.util.TestDatabaseManager;
+import com.github.database.rider.core.api.dataset.DataSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The counters are a process-wide singleton and the datasets are written behind
+ * the DAOs' back, after {@code @BeforeEach}, so every test reconciles first to
+ * start from the dataset's counts: ADMIN (1) has johndoe, USER (2) has
+ * janesmith, MODERATOR (3) is empty. Tests that insert users load only the
+ * roles, so the generated ids cannot collide with the dataset's fixed ones.
+ */
+@DisplayName("RoleMembershipCounters Tests")
+@DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+class RoleMembershipCountersTest extends BaseDaoTest {
+    private static final Long ADMIN = 1L;
+    private static final Long USER = 2L;
+    private static final Long MODERATOR = 3L;
+
+    private final RoleMembershipCounters counters = RoleMembershipCounters.getInstance();
+    private HibernateUserDao userDao;
+    private HibernateRoleDao roleDao;
+
+    @BeforeEach
+    void setUp() {
+        userDao = new HibernateUserDao();
+        roleDao = new HibernateRoleDao();
+    }
+
+    @Test
+    void shouldStartFromTheDatabaseCounts() {
+        roleDao.reconcileUserCounts();
+
+        assertThat(counters.snapshot()).containsExactlyInAnyOrderEntriesOf(
+                Map.of(ADMIN, 1L, USER, 1L, MODERATOR, 0L));
+        assertThat(counters.isLoaded()).isTrue();
+    }
+
+    @Test
+    @DataSet("dataset/roles.yml")
+    void shouldIncrementTheRoleOfACreatedUser() {
+        roleDao.reconcileUserCounts();
+
+        userDao.create(newUser("alice", roleDao.findById(USER)));
+
+        assertThat(counters.get(USER)).isEqualTo(1L);
+        assertThat(counters.get(ADMIN)).isZero();
+    }
+
+    @Test
+    @DataSet("dataset/roles.yml")
+    void shouldCountEveryUserOfABatch() {
+        roleDao.reconcileUserCounts();
+        Role moderator = roleDao.findById(MODERATOR);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            users.add(newUser("batch" + i, moderator));
+        }
+
+        userDao.createAll(users);
+        userDao.removeAll(users.subList(0, 2));
+
+        assertThat(counters.get(MODERATOR)).isEqualTo(3L);
+    }
+
+    @Test
+    void shouldDecrementTheRoleOfARemovedUser() {
+        roleDao.reconcileUserCounts();
+
+        userDao.remove(userDao.findByLogin("johndoe"));
+
+        assertThat(counters.get(ADMIN)).isZero();
+        assertThat(counters.get(USER)).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldMoveAUserWhoseRoleChanges() {
+        roleDao.reconcileUserCounts();
+        User jane = userDao.findByLogin("janesmith");
+        jane.setRole(roleDao.findById(MODERATOR));
+
+        userDao.update(jane);
+
+        assertThat(counters.get(USER)).isZero();
+        assertThat(counters.get(MODERATOR)).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldMoveAUserWhoseProfileChangesRole() {
+        roleDao.reconcileUserCounts();
+        User john = userDao.findByLogin("johndoe");
+        john.setRole(roleDao.findById(USER));
+
+        userDao.updateProfile(john, false);
+
+        assertThat(counters.get(ADMIN)).isZero();
+        assertThat(counters.get(USER)).isEqualTo(2L);
+    }
+
+    @Test
+    void shouldLeaveCountsAloneWhenTheRoleIsUnchanged() {
+        roleDao.reconcileUserCounts();
+        User jane = userDao.findByLogin("janesmith");
+        jane.setFirstName("Janet");
+
+        userDao.update(jane);
+
+        assertThat(counters.get(USER)).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldNotCountWritesThatRollBack() {
+        roleDao.reconcileUserCounts();
+        HibernateUtil.bindSession();
+        try {
+            User jane = userDao.findByLogin("janesmith");
+            jane.setRole(roleDao.findById(MODERATOR));
+            userDao.update(jane);
+            userDao.remove(userDao.findByLogin("johndoe"));
+        } finally {
+            HibernateUtil.unbindSession(false);
+        }
+
+        assertThat(counters.snapshot()).containsExactlyInAnyOrderEntriesOf(
+                Map.of(ADMIN, 1L, USER, 1L, MODERATOR, 0L));
+    }
+
+    @Test
+    void shouldCorrectDriftOnReconcile() throws SQLException {
+        roleDao.reconcileUserCounts();
+
+        // a write the DAO never saw, and a counter that went wrong on its own
+        try (Connection connection = new TestDatabaseManager(connectionHolder).getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE users SET role_id = 3 WHERE login = 'janesmith'");
+        }
+        counters.increment(ADMIN);
+
+        Map<Long, Long> counts = roleDao.reconcileUserCounts();
+
+        assertThat(counts).containsExactlyInAnyOrderEntriesOf(Map.of(ADMIN, 1L, USER, 0L, MODERATOR, 1L));
+        assertThat(counters.snapshot()).isEqualTo(counts);
+    }
+
+    @Test
+    void shouldReplayChangesMadeWhileReconciling() {
+        counters.beginReconcile();
+        counters.increment(USER);
+        counters.move(ADMIN, MODERATOR);
+        counters.finishReconcile(Map.of(ADMIN, 4L, USER, 4L, MODERATOR, 4L));
+
+        assertThat(counters.snapshot()).containsExactlyInAnyOrderEntriesOf(
+                Map.of(ADMIN, 3L, USER, 5L, MODERATOR, 5L));
+    }
+
+    @Test
+    void shouldDropRolesMissingFromTheReconciledCounts() {
+        counters.increment(99L);
+
+        roleDao.reconcileUserCounts();
+
+        assertThat(counters.snapshot()).doesNotContainKey(99L);
+    }
+
+    private static User newUser(String login, Role role) {
+        return new User(login, "password", login + "@example.com", "New", "User", null, role);
+    }
+}
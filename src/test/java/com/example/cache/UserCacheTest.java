@@ -0,0 +1,108 @@
+package com.example.cache;
+
+import com.example.model.Role;
+import com.example.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("UserCache Tests")
+class UserCacheTest {
+    private UserCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserCache(2, 300, 30);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromAnyIndex() {
+        User john = user(1L, "johndoe", "john@example.com");
+
+        cache.getByLogin("johndoe", () -> load(john));
+        User byLogin = cache.getByLogin("johndoe", () -> load(john));
+        User byEmail = cache.getByEmail("john@example.com", () -> load(john));
+        User byId = cache.getById(1L, () -> load(john));
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(byLogin.getLogin()).isEqualTo("johndoe");
+        assertThat(byEmail.getId()).isEqualTo(1L);
+        assertThat(byId).isNotSameAs(john);
+        assertThat(cache.getHits()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldCacheMissesUntilInvalidated() {
+        cache.getByLogin("ghost", () -> load(null));
+        assertThat(cache.getByLogin("ghost", () -> load(null))).isNull();
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getNegativeHits()).isEqualTo(1);
+
+        User ghost = user(2L, "ghost", "ghost@example.com");
+        cache.invalidate(ghost);
+
+        assertThat(cache.getByLogin("ghost", () -> load(ghost))).isNotNull();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDropOldIndexesWhenLoginChanges() {
+        User john = user(1L, "johndoe", "john@example.com");
+        cache.getByLogin("johndoe", () -> load(john));
+
+        User renamed = user(1L, "johnny", "john@example.com");
+        cache.invalidate(renamed);
+
+        assertThat(cache.getByLogin("johndoe", () -> load(null))).isNull();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntries() {
+        cache.getById(1L, () -> load(user(1L, "one", "one@example.com")));
+        cache.getById(2L, () -> load(user(2L, "two", "two@example.com")));
+        cache.getById(1L, () -> load(null));
+        cache.getById(3L, () -> load(user(3L, "three", "three@example.com")));
+
+        assertThat(cache.getSize()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+
+        cache.getByLogin("two", () -> load(null));
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldNotShareRolesWithCallers() {
+        Role admin = new Role("ADMIN");
+        admin.setId(1L);
+        User john = user(1L, "johndoe", "john@example.com");
+        john.setRole(admin);
+
+        User first = cache.getById(1L, () -> load(john));
+        admin.setName("CHANGED");
+        first.getRole().setName("ALSO CHANGED");
+        User second = cache.getById(1L, () -> load(null));
+
+        assertThat(second.getRole()).isNotSameAs(admin).isNotSameAs(first.getRole());
+        assertThat(second.getRole().getId()).isEqualTo(1L);
+        assertThat(second.getRole().getName()).isEqualTo("ADMIN");
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    private User load(User user) {
+        loads.incrementAndGet();
+        return user;
+    }
+
+    private User user(Long id, String login, String email) {
+        User user = new User(login, "password", email, "First", "Last", null, null);
+        user.setId(id);
+        return user;
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.dao;
 
+import com.example.cache.RoleRegistry;
+import com.example.cache.UserCache;
+import com.example.util.DatabaseManager;
+import com.example.util.HibernateUtil;
 import com.example.util.TestDatabaseManager;
 import com.github.database.rider.core.api.configuration.DBUnit;
 import com.github.database.rider.core.api.connection.ConnectionHolder;
@@ -34,6 +38,17 @@ public abstract class BaseDaoTest {
         testDatabaseManager = new TestDatabaseManager(connectionHolder);
 
         cleanDatabase();
+        resetCaches();
+    }
+
+    /**
+     * Datasets are written behind Hibernate's back, so nothing cached by an
+     * earlier test may survive into the next one.
+     */
+    void resetCaches() {
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+        RoleRegistry.getInstance().clear();
+        UserCache.getInstance().invalidateAll();
     }
 
     void cleanDatabase() throws SQLException {
@@ -68,7 +83,19 @@ public abstract class BaseDaoTest {
                         "    FOREIGN KEY (role_id) REFERENCES roles(id)" +
                         ")"
         );
+
+        // the search columns and indexes from schema.sql, which the test database does not run
+        stmt.execute("ALTER TABLE users ADD COLUMN IF NOT EXISTS login_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(login))");
+        stmt.execute("ALTER TABLE users ADD COLUMN IF NOT EXISTS email_lower VARCHAR(100) GENERATED ALWAYS AS (LOWER(email))");
+        stmt.execute("ALTER TABLE users ADD COLUMN IF NOT EXISTS first_name_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(first_name))");
+        stmt.execute("ALTER TABLE users ADD COLUMN IF NOT EXISTS last_name_lower VARCHAR(50) GENERATED ALWAYS AS (LOWER(last_name))");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_users_login_lower ON users(login_lower)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users(email_lower)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_users_first_name_lower ON users(first_name_lower)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_users_last_name_lower ON users(last_name_lower)");
         stmt.close();
+
+        DatabaseManager.migrate("migrations/fulltext.sql");
     }
 
     protected TestDatabaseManager getTestDatabaseManager() {
@@ -0,0 +1,120 @@
+package com.example.dao;
+
+import com.example.model.Role;
+import com.example.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Maps literal SELECTs from a private in-memory database, so each test controls
+ * exactly which columns and labels the mapper sees.
+ */
+@DisplayName("EntityRowMapper Tests")
+class EntityRowMapperTest {
+    private final EntityRowMapper<User> mapper = EntityRowMapper.forEntity(User.class);
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:", "sa", "");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void shouldMapColumnsAndAliasedAssociationColumns() throws SQLException {
+        User user = mapFirst("SELECT 7 AS id, 'jdoe' AS login, 'secret' AS password, 'jdoe@example.com' AS email, " +
+                "'John' AS first_name, 'Doe' AS last_name, DATE '1990-05-15' AS birthday, " +
+                "2 AS role_id, 'ADMIN' AS role_name");
+
+        assertThat(user.getId()).isEqualTo(7L);
+        assertThat(user.getLogin()).isEqualTo("jdoe");
+        assertThat(user.getPassword()).isEqualTo("secret");
+        assertThat(user.getEmail()).isEqualTo("jdoe@example.com");
+        assertThat(user.getFirstName()).isEqualTo("John");
+        assertThat(user.getLastName()).isEqualTo("Doe");
+        assertThat(user.getBirthday()).isEqualTo(LocalDate.of(1990, 5, 15));
+        assertThat(user.getRole().getId()).isEqualTo(2L);
+        assertThat(user.getRole().getName()).isEqualTo("ADMIN");
+    }
+
+    @Test
+    void shouldLeaveUnselectedColumnsUnset() throws SQLException {
+        User user = mapFirst("SELECT 7 AS id, 'jdoe' AS login");
+
+        assertThat(user.getId()).isEqualTo(7L);
+        assertThat(user.getLogin()).isEqualTo("jdoe");
+        assertThat(user.getPassword()).isNull();
+        assertThat(user.getEmail()).isNull();
+        assertThat(user.getBirthday()).isNull();
+        assertThat(user.getRole()).isNull();
+    }
+
+    @Test
+    void shouldMatchLabelsCaseInsensitively() throws SQLException {
+        User user = mapFirst("SELECT 7 AS \"Id\", 'jdoe' AS \"LOGIN\", 'John' AS \"First_Name\"");
+
+        assertThat(user.getId()).isEqualTo(7L);
+        assertThat(user.getLogin()).isEqualTo("jdoe");
+        assertThat(user.getFirstName()).isEqualTo("John");
+    }
+
+    @Test
+    void shouldMapOnlyTheJoinColumnWhenAssociationColumnsAreMissing() throws SQLException {
+        User user = mapFirst("SELECT 7 AS id, 3 AS role_id");
+
+        assertThat(user.getRole().getId()).isEqualTo(3L);
+        assertThat(user.getRole().getName()).isNull();
+    }
+
+    @Test
+    void shouldLeaveAssociationUnsetWhenTheJoinColumnIsNull() throws SQLException {
+        User user = mapFirst("SELECT 7 AS id, CAST(NULL AS BIGINT) AS role_id, 'ADMIN' AS role_name");
+
+        assertThat(user.getRole()).isNull();
+    }
+
+    @Test
+    void shouldKeepNullValuesOfSelectedColumns() throws SQLException {
+        User user = mapFirst("SELECT CAST(NULL AS BIGINT) AS id, CAST(NULL AS DATE) AS birthday, 'jdoe' AS login");
+
+        assertThat(user.getId()).isNull();
+        assertThat(user.getBirthday()).isNull();
+        assertThat(user.getLogin()).isEqualTo("jdoe");
+    }
+
+    @Test
+    void shouldMapEveryRowWithTheSamePlan() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT * FROM (VALUES (1, 'ADMIN'), (2, 'USER')) AS t(id, name) ORDER BY id")) {
+            List<Role> roles = EntityRowMapper.forEntity(Role.class).mapAll("roles.test", rs);
+
+            assertThat(roles).extracting(Role::getId).containsExactly(1L, 2L);
+            assertThat(roles).extracting(Role::getName).containsExactly("ADMIN", "USER");
+        }
+    }
+
+    private User mapFirst(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            assertThat(rs.next()).isTrue();
+            return mapper.mapRow(rs);
+        }
+    }
+}
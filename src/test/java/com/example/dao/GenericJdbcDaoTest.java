@@ -0,0 +1,171 @@
+package com.example.dao;
+
+import com.example.exceptions.DatabaseWriteException;
+import com.example.model.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The application has no concrete {@link GenericJdbcDao}, so the batch paths run
+ * through {@link JdbcRoleDao} below. The test {@code database.properties} sets
+ * {@code db.batch.size=2}, so every batch here spans several chunks.
+ */
+@DisplayName("GenericJdbcDao Tests")
+class GenericJdbcDaoTest extends BaseDaoTest {
+    private JdbcRoleDao roleDao;
+
+    @BeforeEach
+    void setUp() {
+        roleDao = new JdbcRoleDao();
+    }
+
+    @Test
+    void shouldCopyGeneratedIdsBackAcrossBatchChunks() {
+        List<Role> roles = roles("R0", "R1", "R2", "R3", "R4");
+
+        roleDao.createAll(roles);
+
+        assertThat(roles).extracting(Role::getId).doesNotContainNull().doesNotHaveDuplicates();
+        for (Role role : roles) {
+            assertThat(roleDao.findById(role.getId()).getName()).isEqualTo(role.getName());
+        }
+    }
+
+    @Test
+    void shouldKeepCommittedChunksWhenALaterChunkFails() {
+        List<Role> roles = roles("R0", "R1", "R2", "R0");
+
+        assertThatThrownBy(() -> roleDao.createAll(roles))
+                .isInstanceOf(DatabaseWriteException.class)
+                .hasMessageContaining("Error creating entities");
+
+        // chunk one (R0, R1) committed; chunk two (R2 and the duplicate) rolled back
+        assertThat(roleDao.findAll()).extracting(Role::getName).containsExactly("R0", "R1");
+    }
+
+    @Test
+    void shouldUpdateEveryEntityInBatches() {
+        List<Role> roles = roles("R0", "R1", "R2");
+        roleDao.createAll(roles);
+
+        roles.forEach(role -> role.setName(role.getName() + "-UPDATED"));
+        roleDao.updateAll(roles);
+
+        assertThat(roleDao.findAll()).extracting(Role::getName)
+                .containsExactly("R0-UPDATED", "R1-UPDATED", "R2-UPDATED");
+    }
+
+    @Test
+    void shouldRemoveOnlyTheGivenEntitiesInBatches() {
+        List<Role> roles = roles("R0", "R1", "R2", "R3", "R4");
+        roleDao.createAll(roles);
+
+        roleDao.removeAll(roles.subList(0, 3));
+
+        assertThat(roleDao.findAll()).extracting(Role::getName).containsExactly("R3", "R4");
+    }
+
+    @Test
+    void shouldFailAndRollBackTheChunkWhenARowIsMissing() {
+        List<Role> roles = roles("R0", "R1", "R2");
+        roleDao.createAll(roles);
+        Role ghost = new Role("GHOST");
+        ghost.setId(999L);
+
+        List<Role> toRemove = new ArrayList<>(roles);
+        toRemove.add(ghost);
+
+        assertThatThrownBy(() -> roleDao.removeAll(toRemove))
+                .isInstanceOf(DatabaseWriteException.class)
+                .hasMessageContaining("Error deleting entities");
+
+        // chunk one (R0, R1) committed; chunk two (R2 and the missing row) rolled back
+        assertThat(roleDao.findAll()).extracting(Role::getName).containsExactly("R2");
+    }
+
+    @Test
+    void shouldIgnoreEmptyBatches() {
+        roleDao.createAll(Collections.emptyList());
+        roleDao.updateAll(Collections.emptyList());
+        roleDao.removeAll(null);
+
+        assertThat(roleDao.findAll()).isEmpty();
+    }
+
+    private static List<Role> roles(String... names) {
+        List<Role> roles = new ArrayList<>();
+        for (String name : names) {
+            roles.add(new Role(name));
+        }
+        return roles;
+    }
+
+    private static class JdbcRoleDao extends GenericJdbcDao<Role> {
+
+        @Override
+        protected String getTableName() {
+            return "roles";
+        }
+
+        @Override
+        protected String getInsertQuery() {
+            return "INSERT INTO roles (name) VALUES (?)";
+        }
+
+        @Override
+        protected String getUpdateQuery() {
+            return "UPDATE roles SET name = ? WHERE id = ?";
+        }
+
+        @Override
+        protected String getDeleteQuery() {
+            return "DELETE FROM roles WHERE id = ?";
+        }
+
+        @Override
+        protected String getFindAllQuery() {
+            return "SELECT id, name FROM roles ORDER BY id";
+        }
+
+        @Override
+        protected String getFindByIdQuery() {
+            return "SELECT id, name FROM roles WHERE id = ?";
+        }
+
+        @Override
+        protected void setInsertParameters(PreparedStatement ps, Role role) throws SQLException {
+            ps.setString(1, role.getName());
+        }
+
+        @Override
+        protected void setUpdateParameters(PreparedStatement ps, Role role) throws SQLException {
+            ps.setString(1, role.getName());
+            ps.setLong(2, role.getId());
+        }
+
+        @Override
+        protected Long getEntityId(Role role) {
+            return role.getId();
+        }
+
+        @Override
+        protected void setEntityId(Role role, Long id) {
+            role.setId(id);
+        }
+
+        @Override
+        protected EntityRowMapper<Role> getRowMapper() {
+            return EntityRowMapper.forEntity(Role.class);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.dao;
 
-import com.example.exceptions.DatabaseWriteException;
 import com.example.model.Role;
 import com.github.database.rider.core.api.dataset.DataSet;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,14 +15,14 @@ import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-@DisplayName("JdbcRoleDao Comprehensive Tests")
-class JdbcRoleDaoTest extends BaseDaoTest {
+@DisplayName("HibernateRoleDao Comprehensive Tests")
+class HibernateRoleDaoTest extends BaseDaoTest {
 
-    private JdbcRoleDao roleDao;
+    private HibernateRoleDao roleDao;
 
     @BeforeEach
     void setUp() {
-        roleDao = new JdbcRoleDao(getTestDatabaseManager());
+        roleDao = new HibernateRoleDao();
     }
 
     @Test
@@ -59,7 +58,7 @@ class JdbcRoleDaoTest extends BaseDaoTest {
 
         assertThatThrownBy(() -> roleDao.create(newRole))
                 .isInstanceOf(RuntimeException.class)
-                .hasMessageContaining("Error creating entity");
+                .hasMessageContaining("Error creating role");
     }
 
     @Test
@@ -79,8 +78,8 @@ class JdbcRoleDaoTest extends BaseDaoTest {
         Role duplicateRole = new Role("ADMIN");
 
         assertThatThrownBy(() -> roleDao.create(duplicateRole))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error creating entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error creating role");
     }
 
     @Test
@@ -89,8 +88,8 @@ class JdbcRoleDaoTest extends BaseDaoTest {
         Role newRole = new Role(tooLongName);
 
         assertThatThrownBy(() -> roleDao.create(newRole))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error creating entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error creating role");
     }
 
     @Test
@@ -172,12 +171,13 @@ class JdbcRoleDaoTest extends BaseDaoTest {
 
     @Test
     @DataSet("dataset/roles.yml")
-    void shouldReturnIndependentListInstances() {
-        List<Role> roles1 = roleDao.findAll();
-        List<Role> roles2 = roleDao.findAll();
+    void shouldReturnReadOnlyRoleLists() {
+        // roles come from the registry's shared snapshot, so callers cannot get a private copy to modify
+        List<Role> roles = roleDao.findAll();
 
-        assertThat(roles1).isNotSameAs(roles2);
-        assertThat(roles1).hasSize(roles2.size());
+        assertThatThrownBy(() -> roles.add(new Role("GUEST")))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(roleDao.findAll()).hasSize(3);
     }
 
     @Test
@@ -215,8 +215,8 @@ class JdbcRoleDaoTest extends BaseDaoTest {
         userRole.setName("ADMIN");
 
         assertThatThrownBy(() -> roleDao.update(userRole))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error updating entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error updating role");
     }
 
     @Test
@@ -225,8 +225,8 @@ class JdbcRoleDaoTest extends BaseDaoTest {
         nonExistentRole.setId(999L);
 
         assertThatThrownBy(() -> roleDao.update(nonExistentRole))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error updating entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error updating role");
     }
 
     @Test
@@ -237,8 +237,8 @@ class JdbcRoleDaoTest extends BaseDaoTest {
         role.setName(null);
 
         assertThatThrownBy(() -> roleDao.update(role))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error updating entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error updating role");
     }
 
     @Test
@@ -279,8 +279,8 @@ class JdbcRoleDaoTest extends BaseDaoTest {
         nonExistentRole.setId(999L);
 
         assertThatThrownBy(() -> roleDao.remove(nonExistentRole))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error deleting entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error removing role");
     }
 
     @Test
@@ -295,7 +295,8 @@ class JdbcRoleDaoTest extends BaseDaoTest {
         role.setId(null);
 
         assertThatThrownBy(() -> roleDao.remove(role))
-                .isInstanceOf(RuntimeException.class);
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error removing role");
     }
 
     @Test
@@ -308,7 +309,7 @@ class JdbcRoleDaoTest extends BaseDaoTest {
         Role invalidRole = new Role("A".repeat(100));
 
         assertThatThrownBy(() -> roleDao.create(invalidRole))
-                .isInstanceOf(DatabaseWriteException.class);
+                .isInstanceOf(RuntimeException.class);
 
         assertThat(roleDao.findAll()).hasSize(initialCount);
     }
@@ -372,4 +373,4 @@ class JdbcRoleDaoTest extends BaseDaoTest {
         assertThat(found1.getId()).isEqualTo(found2.getId()).isEqualTo(found3.getId());
         assertThat(found1.getName()).isEqualTo(found2.getName()).isEqualTo(found3.getName());
     }
-}
\ No newline at end of file
+}
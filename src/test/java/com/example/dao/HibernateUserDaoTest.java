@@ -1,8 +1,9 @@
 package com.example.dao;
 
-import com.example.exceptions.DatabaseWriteException;
 import com.example.model.Role;
 import com.example.model.User;
+import com.example.model.UserSummary;
+import com.example.util.HibernateUtil;
 import com.github.database.rider.core.api.dataset.DataSet;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,20 +15,27 @@ import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-@DisplayName("JdbcUserDao Comprehensive Tests")
-class JdbcUserDaoTest extends BaseDaoTest {
-    private JdbcUserDao userDao;
-    private JdbcRoleDao roleDao;
+/**
+ * Runs against the in-memory database set up by {@link BaseDaoTest}. The test
+ * {@code database.properties} sets {@code db.batch.size=2}, so the batch tests
+ * below write several chunks.
+ */
+@DisplayName("HibernateUserDao Comprehensive Tests")
+class HibernateUserDaoTest extends BaseDaoTest {
+    private HibernateUserDao userDao;
+    private HibernateRoleDao roleDao;
 
     @BeforeEach
     void setUp() {
-        userDao = new JdbcUserDao(getTestDatabaseManager());
-        roleDao = new JdbcRoleDao(getTestDatabaseManager());
+        userDao = new HibernateUserDao();
+        roleDao = new HibernateRoleDao();
     }
 
     @Test
@@ -55,9 +63,10 @@ class JdbcUserDaoTest extends BaseDaoTest {
     }
 
     @Test
+    @DataSet("dataset/roles.yml")
     void shouldCreateUserWithMinimalFields() {
         User newUser = new User("minimal", "pass", "minimal@example.com",
-                null, null, null, null);
+                "Min", "Imal", null, roleDao.findByName("USER"));
 
         userDao.create(newUser);
 
@@ -65,17 +74,29 @@ class JdbcUserDaoTest extends BaseDaoTest {
 
         User foundUser = userDao.findByLogin("minimal");
         assertThat(foundUser).isNotNull();
-        assertThat(foundUser.getFirstName()).isNull();
-        assertThat(foundUser.getLastName()).isNull();
         assertThat(foundUser.getBirthday()).isNull();
-        assertThat(foundUser.getRole()).isNull();
+        assertThat(foundUser.getRole().getName()).isEqualTo("USER");
     }
 
     @Test
+    @DataSet("dataset/roles.yml")
+    void shouldFailToCreateUserWithNullNames() {
+        User newUser = new User("nonames", "pass", "nonames@example.com",
+                null, null, null, roleDao.findByName("USER"));
+
+        assertThatThrownBy(() -> userDao.create(newUser))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error creating user");
+
+        assertThat(userDao.findByLogin("nonames")).isNull();
+    }
+
+    @Test
+    @DataSet("dataset/roles.yml")
     void shouldCreateUserWithVeryLongNames() {
         String longName = "A".repeat(50);
         User newUser = new User("longuser", "password", "long@example.com",
-                longName, longName, null, null);
+                longName, longName, null, roleDao.findByName("USER"));
 
         userDao.create(newUser);
 
@@ -88,52 +109,55 @@ class JdbcUserDaoTest extends BaseDaoTest {
     @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
     void shouldFailToCreateUserWithDuplicateLogin() {
         User duplicateUser = new User("johndoe", "password", "different@example.com",
-                "Different", "User", null, null);
+                "Different", "User", null, roleDao.findByName("USER"));
 
         assertThatThrownBy(() -> userDao.create(duplicateUser))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error creating entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error creating user");
     }
 
     @Test
     @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
     void shouldFailToCreateUserWithDuplicateEmail() {
         User duplicateUser = new User("differentlogin", "password", "john@example.com",
-                "Different", "User", null, null);
+                "Different", "User", null, roleDao.findByName("USER"));
 
         assertThatThrownBy(() -> userDao.create(duplicateUser))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error creating entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error creating user");
     }
 
     @Test
+    @DataSet("dataset/roles.yml")
     void shouldFailToCreateUserWithNullLogin() {
         User invalidUser = new User(null, "password", "test@example.com",
-                "Test", "User", null, null);
+                "Test", "User", null, roleDao.findByName("USER"));
 
         assertThatThrownBy(() -> userDao.create(invalidUser))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error creating entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error creating user");
     }
 
     @Test
+    @DataSet("dataset/roles.yml")
     void shouldFailToCreateUserWithNullPassword() {
         User invalidUser = new User("testuser", null, "test@example.com",
-                "Test", "User", null, null);
+                "Test", "User", null, roleDao.findByName("USER"));
 
         assertThatThrownBy(() -> userDao.create(invalidUser))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error creating entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error creating user");
     }
 
     @Test
+    @DataSet("dataset/roles.yml")
     void shouldFailToCreateUserWithNullEmail() {
         User invalidUser = new User("testuser", "password", null,
-                "Test", "User", null, null);
+                "Test", "User", null, roleDao.findByName("USER"));
 
         assertThatThrownBy(() -> userDao.create(invalidUser))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error creating entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error creating user");
     }
 
     @Test
@@ -169,8 +193,6 @@ class JdbcUserDaoTest extends BaseDaoTest {
         assertThat(user).isNull();
     }
 
-
-
     @ParameterizedTest
     @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
     @DisplayName("Should handle case sensitivity when finding by login")
@@ -296,18 +318,37 @@ class JdbcUserDaoTest extends BaseDaoTest {
     void shouldUpdateUserToRemoveOptionalFields() {
         User user = userDao.findByLogin("johndoe");
 
-        user.setFirstName(null);
-        user.setLastName(null);
         user.setBirthday(null);
-        user.setRole(null);
 
         userDao.update(user);
 
         User updatedUser = userDao.findById(user.getId());
-        assertThat(updatedUser.getFirstName()).isNull();
-        assertThat(updatedUser.getLastName()).isNull();
         assertThat(updatedUser.getBirthday()).isNull();
-        assertThat(updatedUser.getRole()).isNull();
+        assertThat(updatedUser.getFirstName()).isEqualTo("John");
+    }
+
+    @Test
+    @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+    void shouldFailToUpdateUserToRemoveNamesOrRole() {
+        User user = userDao.findByLogin("johndoe");
+        user.setFirstName(null);
+        user.setLastName(null);
+
+        assertThatThrownBy(() -> userDao.update(user))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error updating user");
+
+        User noRole = userDao.findByLogin("johndoe");
+        noRole.setRole(null);
+
+        assertThatThrownBy(() -> userDao.update(noRole))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error updating user");
+
+        User stored = userDao.findByLogin("johndoe");
+        assertThat(stored.getFirstName()).isEqualTo("John");
+        assertThat(stored.getLastName()).isEqualTo("Doe");
+        assertThat(stored.getRole()).isNotNull();
     }
 
     @Test
@@ -317,8 +358,8 @@ class JdbcUserDaoTest extends BaseDaoTest {
         user1.setLogin("janesmith");
 
         assertThatThrownBy(() -> userDao.update(user1))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error updating entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error updating user");
     }
 
 
@@ -329,32 +370,34 @@ class JdbcUserDaoTest extends BaseDaoTest {
         user1.setEmail("jane@example.com");
 
         assertThatThrownBy(() -> userDao.update(user1))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error updating entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error updating user");
     }
 
     @Test
+    @DataSet("dataset/roles.yml")
     void shouldFailToUpdateNonExistentUser() {
         User nonExistentUser = new User("ghost", "password", "ghost@example.com",
-                "Ghost", "User", null, null);
+                "Ghost", "User", null, roleDao.findByName("USER"));
         nonExistentUser.setId(999L);
 
         assertThatThrownBy(() -> userDao.update(nonExistentUser))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error updating entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error updating user");
     }
 
     @Test
+    @DataSet("dataset/roles.yml")
     void shouldFailToUpdateUserWithNullRequiredFields() {
         User user = new User("temp", "password", "temp@example.com",
-                null, null, null, null);
+                "Temp", "User", null, roleDao.findByName("USER"));
         userDao.create(user);
 
         user.setLogin(null);
 
         assertThatThrownBy(() -> userDao.update(user))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error updating entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error updating user");
     }
 
     @Test
@@ -381,14 +424,15 @@ class JdbcUserDaoTest extends BaseDaoTest {
     }
 
     @Test
+    @DataSet("dataset/roles.yml")
     void shouldFailToDeleteNonExistentUser() {
         User nonExistentUser = new User("ghost", "password", "ghost@example.com",
-                "Ghost", "User", null, null);
+                "Ghost", "User", null, roleDao.findByName("USER"));
         nonExistentUser.setId(999L);
 
         assertThatThrownBy(() -> userDao.remove(nonExistentUser))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error deleting entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error removing user");
     }
 
     @Test
@@ -400,11 +444,12 @@ class JdbcUserDaoTest extends BaseDaoTest {
     @Test
     void shouldFailToDeleteUserWithNullId() {
         User user = new User("temp", "password", "temp@example.com",
-                null, null, null, null);
+                "Temp", "User", null, null);
         user.setId(null);
 
         assertThatThrownBy(() -> userDao.remove(user))
-                .isInstanceOf(RuntimeException.class);
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error removing user");
     }
 
     @Test
@@ -466,14 +511,15 @@ class JdbcUserDaoTest extends BaseDaoTest {
     }
 
     @Test
-    void shouldHandleUserWithNullRole() {
+    void shouldFailToCreateUserWithNullRole() {
         User user = new User("norole", "password", "norole@example.com",
                 "No", "Role", null, null);
 
-        userDao.create(user);
+        assertThatThrownBy(() -> userDao.create(user))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error creating user");
 
-        User foundUser = userDao.findByLogin("norole");
-        assertThat(foundUser.getRole()).isNull();
+        assertThat(userDao.findByLogin("norole")).isNull();
     }
 
     @Test
@@ -494,6 +540,7 @@ class JdbcUserDaoTest extends BaseDaoTest {
     }
 
     @Test
+    @DataSet("dataset/roles.yml")
     void shouldHandleMaximumLengthStrings() {
         String maxLogin = "a".repeat(50);
 
@@ -501,7 +548,7 @@ class JdbcUserDaoTest extends BaseDaoTest {
         String maxName = "a".repeat(50);
 
         User user = new User(maxLogin, "password", maxEmail,
-                maxName, maxName, null, null);
+                maxName, maxName, null, roleDao.findByName("USER"));
 
         userDao.create(user);
 
@@ -514,29 +561,32 @@ class JdbcUserDaoTest extends BaseDaoTest {
     }
 
     @Test
+    @DataSet("dataset/roles.yml")
     void shouldFailWithStringsExceedingMaximumLength() {
         String tooLongLogin = "a".repeat(51);
         User user = new User(tooLongLogin, "password", "test@example.com",
-                "Test", "User", null, null);
+                "Test", "User", null, roleDao.findByName("USER"));
 
         assertThatThrownBy(() -> userDao.create(user))
-                .isInstanceOf(DatabaseWriteException.class)
-                .hasMessageContaining("Error creating entity");
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error creating user");
     }
 
     @Test
+    @DataSet("dataset/roles.yml")
     void shouldRollbackTransactionOnCreateFailure() {
+        Role userRole = roleDao.findByName("USER");
         User validUser = new User("valid", "password", "valid@example.com",
-                "Valid", "User", null, null);
+                "Valid", "User", null, userRole);
         userDao.create(validUser);
 
         int initialCount = userDao.findAll().size();
 
         User invalidUser = new User("valid", "password", "different@example.com",
-                "Invalid", "User", null, null);
+                "Invalid", "User", null, userRole);
 
         assertThatThrownBy(() -> userDao.create(invalidUser))
-                .isInstanceOf(DatabaseWriteException.class);
+                .isInstanceOf(RuntimeException.class);
 
         assertThat(userDao.findAll()).hasSize(initialCount);
     }
@@ -583,13 +633,14 @@ class JdbcUserDaoTest extends BaseDaoTest {
     }
 
     @Test
+    @DataSet("dataset/roles.yml")
     void shouldHandleSpecialCharactersInUserData() {
         String specialLogin = "user_with-special.chars123";
         String specialEmail = "special+email@test-domain.co.uk";
         String specialName = "José-María O'Connor";
 
         User user = new User(specialLogin, "password", specialEmail,
-                specialName, specialName, null, null);
+                specialName, specialName, null, roleDao.findByName("USER"));
 
         userDao.create(user);
 
@@ -625,9 +676,10 @@ class JdbcUserDaoTest extends BaseDaoTest {
     }
 
     @Test
+    @DataSet("dataset/roles.yml")
     void shouldHandleRapidSuccessiveOperations() {
         User user = new User("rapid", "password", "rapid@example.com",
-                "Rapid", "Test", null, null);
+                "Rapid", "Test", null, roleDao.findByName("USER"));
 
         userDao.create(user);
         assertThat(userDao.findByLogin("rapid")).isNotNull();
@@ -639,4 +691,200 @@ class JdbcUserDaoTest extends BaseDaoTest {
         userDao.remove(user);
         assertThat(userDao.findByLogin("rapid")).isNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DataSet("dataset/roles.yml")
+    void shouldCopyGeneratedIdsBackAcrossBatchChunks() {
+        List<User> users = batchUsers(5);
+
+        userDao.createAll(users);
+
+        assertThat(users).extracting(User::getId).doesNotContainNull().doesNotHaveDuplicates();
+        for (User user : users) {
+            User stored = userDao.findById(user.getId());
+            assertThat(stored.getLogin()).isEqualTo(user.getLogin());
+            assertThat(stored.getRole().getName()).isEqualTo("USER");
+        }
+        assertThat(userDao.findAll()).hasSize(5);
+    }
+
+    @Test
+    @DataSet("dataset/roles.yml")
+    void shouldKeepCommittedChunksWhenALaterChunkFails() {
+        List<User> users = batchUsers(3);
+        users.add(new User("batch0", "password", "other@example.com",
+                "Batch", "Duplicate", null, roleDao.findByName("USER")));
+
+        assertThatThrownBy(() -> userDao.createAll(users))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Error creating users");
+
+        // chunk one (batch0, batch1) committed; chunk two (batch2 and the duplicate) rolled back
+        assertThat(userDao.findAll()).extracting(User::getLogin).containsExactly("batch0", "batch1");
+    }
+
+    @Test
+    @DataSet("dataset/roles.yml")
+    void shouldUpdateEveryUserInBatches() {
+        List<User> users = batchUsers(5);
+        userDao.createAll(users);
+        Role adminRole = roleDao.findByName("ADMIN");
+
+        users.forEach(user -> {
+            user.setFirstName("Updated");
+            user.setRole(adminRole);
+        });
+        userDao.updateAll(users);
+
+        assertThat(userDao.findAll()).allSatisfy(user -> {
+            assertThat(user.getFirstName()).isEqualTo("Updated");
+            assertThat(user.getRole().getName()).isEqualTo("ADMIN");
+        });
+    }
+
+    @Test
+    @DataSet("dataset/roles.yml")
+    void shouldRemoveOnlyTheGivenUsersInBatches() {
+        List<User> users = batchUsers(5);
+        userDao.createAll(users);
+
+        userDao.removeAll(users.subList(0, 3));
+
+        assertThat(userDao.findAll()).extracting(User::getLogin).containsExactly("batch3", "batch4");
+        assertThat(userDao.findByLogin("batch0")).isNull();
+    }
+
+    @Test
+    @DataSet("dataset/roles.yml")
+    void shouldRunBatchUpdatesInTheBoundSession() {
+        List<User> users = batchUsers(4);
+        userDao.createAll(users);
+
+        HibernateUtil.bindSession();
+        try {
+            // the bound session already holds these users, so they must be merged, not reattached
+            userDao.findAll();
+            users.forEach(user -> user.setFirstName("Updated"));
+            userDao.updateAll(users);
+            userDao.removeAll(users.subList(0, 2));
+        } finally {
+            HibernateUtil.unbindSession(true);
+        }
+
+        assertThat(userDao.findAll()).extracting(User::getLogin).containsExactly("batch2", "batch3");
+        assertThat(userDao.findAll()).extracting(User::getFirstName).containsOnly("Updated");
+    }
+
+    @Test
+    @DataSet("dataset/roles.yml")
+    void shouldRollBackBatchWritesWithTheBoundSession() {
+        List<User> users = batchUsers(4);
+        userDao.createAll(users);
+
+        HibernateUtil.bindSession();
+        try {
+            users.forEach(user -> user.setFirstName("Updated"));
+            userDao.updateAll(users);
+            userDao.removeAll(users.subList(0, 2));
+        } finally {
+            HibernateUtil.unbindSession(false);
+        }
+
+        assertThat(userDao.findAll()).hasSize(4).extracting(User::getFirstName).containsOnly("Batch");
+    }
+
+    @Test
+    void shouldIgnoreEmptyBatches() {
+        userDao.createAll(Collections.emptyList());
+        userDao.updateAll(Collections.emptyList());
+        userDao.removeAll(Collections.emptyList());
+
+        assertThat(userDao.findAll()).isEmpty();
+    }
+
+    @Test
+    @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+    void shouldSearchByLoginPrefix() {
+        assertThat(userDao.search("janes", 10)).extracting(UserSummary::getLogin).containsExactly("janesmith");
+    }
+
+    @Test
+    @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+    void shouldSearchByEmailPrefix() {
+        assertThat(userDao.search("jane@", 10)).extracting(UserSummary::getLogin).containsExactly("janesmith");
+    }
+
+    @Test
+    @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+    void shouldSearchByFirstAndLastNamePrefix() {
+        assertThat(userDao.search("Joh", 10)).extracting(UserSummary::getLogin).containsExactly("johndoe");
+        assertThat(userDao.search("Smi", 10)).extracting(UserSummary::getLogin).containsExactly("janesmith");
+    }
+
+    @Test
+    @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+    void shouldSearchIgnoringCase() {
+        assertThat(userDao.search("JANESM", 10)).extracting(UserSummary::getLogin).containsExactly("janesmith");
+        assertThat(userDao.search("JOHN@EXAMPLE", 10)).extracting(UserSummary::getLogin).containsExactly("johndoe");
+        assertThat(userDao.search("dOE", 10)).extracting(UserSummary::getLogin).containsExactly("johndoe");
+    }
+
+    @Test
+    @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+    void shouldReturnEachUserOnceWhenSeveralBranchesMatch() {
+        // "john" is a prefix of johndoe's login, email and first name, and a full-text word
+        List<UserSummary> results = userDao.search("john", 10);
+
+        assertThat(results).hasSize(1);
+        UserSummary john = results.get(0);
+        assertThat(john.getId()).isEqualTo(1L);
+        assertThat(john.getFirstName()).isEqualTo("John");
+        assertThat(john.getLastName()).isEqualTo("Doe");
+        assertThat(john.getBirthday()).isEqualTo(LocalDate.of(1990, 5, 15));
+        assertThat(john.getRoleName()).isEqualTo("ADMIN");
+    }
+
+    @Test
+    @DataSet("dataset/roles.yml")
+    void shouldCapSearchResultsAtTheLimitInLoginOrder() {
+        userDao.createAll(batchUsers(5));
+
+        assertThat(userDao.search("batch", 3)).extracting(UserSummary::getLogin)
+                .containsExactly("batch0", "batch1", "batch2");
+    }
+
+    @Test
+    @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+    void shouldFindUsersAddedAfterTheDatasetWasLoaded() {
+        userDao.create(new User("alice", "password", "alice@example.com",
+                "Alice", "Walker", null, roleDao.findByName("USER")));
+
+        assertThat(userDao.search("walk", 10)).extracting(UserSummary::getLogin).containsExactly("alice");
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"   "})
+    @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+    void shouldReturnNoSearchResultsForABlankQuery(String query) {
+        assertThat(userDao.search(query, 10)).isEmpty();
+    }
+
+    @Test
+    @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+    void shouldMatchLikeWildcardsLiterally() {
+        // no full-text word either: the full-text branch would match "%doe" on "doe"
+        assertThat(userDao.search("j_n", 10)).isEmpty();
+        assertThat(userDao.search("%oe", 10)).isEmpty();
+    }
+
+    private List<User> batchUsers(int count) {
+        Role userRole = roleDao.findByName("USER");
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(new User("batch" + i, "password", "batch" + i + "@example.com",
+                    "Batch", "User" + i, null, userRole));
+        }
+        return users;
+    }
+}
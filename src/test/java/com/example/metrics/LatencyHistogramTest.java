@@ -0,0 +1,108 @@
+package com.example.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LatencyHistogram Tests")
+class LatencyHistogramTest {
+    private static final long MICROS = 1000;
+
+    private LatencyHistogram histogram;
+
+    @BeforeEach
+    void setUp() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    void shouldReportZerosWhenEmpty() {
+        assertThat(histogram.percentiles(0.5, 0.99)).containsExactly(0L, 0L);
+        assertThat(histogram.getCount()).isZero();
+    }
+
+    @Test
+    void shouldKeepSmallValuesExact() {
+        for (long micros = 0; micros < 32; micros++) {
+            assertThat(LatencyHistogram.upperBound(LatencyHistogram.bucket(micros))).isEqualTo(micros);
+        }
+    }
+
+    @Test
+    void shouldSplitEachPowerOfTwoIntoSixteenBuckets() {
+        // 32..63 is the first octave wider than its sub-buckets: two values per bucket
+        assertThat(LatencyHistogram.bucket(32)).isEqualTo(LatencyHistogram.bucket(33));
+        assertThat(LatencyHistogram.bucket(34)).isEqualTo(LatencyHistogram.bucket(33) + 1);
+        assertThat(LatencyHistogram.upperBound(LatencyHistogram.bucket(32))).isEqualTo(33);
+
+        assertThat(LatencyHistogram.upperBound(LatencyHistogram.bucket(1023))).isEqualTo(1023);
+        assertThat(LatencyHistogram.bucket(1024)).isEqualTo(LatencyHistogram.bucket(1023) + 1);
+        assertThat(LatencyHistogram.upperBound(LatencyHistogram.bucket(1024))).isEqualTo(1087);
+        assertThat(LatencyHistogram.bucket(1088)).isEqualTo(LatencyHistogram.bucket(1024) + 1);
+    }
+
+    @Test
+    void shouldCoverEveryValueWithContiguousBuckets() {
+        int last = LatencyHistogram.bucket(LatencyHistogram.MAX_MICROS);
+        assertThat(LatencyHistogram.upperBound(last)).isEqualTo(LatencyHistogram.MAX_MICROS);
+
+        for (int bucket = 0; bucket < last; bucket++) {
+            long upper = LatencyHistogram.upperBound(bucket);
+            assertThat(LatencyHistogram.bucket(upper)).isEqualTo(bucket);
+            assertThat(LatencyHistogram.bucket(upper + 1)).isEqualTo(bucket + 1);
+        }
+    }
+
+    @Test
+    void shouldNeverUnderReportAndStayWithinOneSixteenth() {
+        for (int exponent = 4; exponent < 36; exponent++) {
+            long edge = 1L << exponent;
+            for (long micros : new long[]{edge - 1, edge, edge + 1, edge + edge / 2}) {
+                long upper = LatencyHistogram.upperBound(LatencyHistogram.bucket(micros));
+                assertThat(upper).isGreaterThanOrEqualTo(micros);
+                assertThat((double) (upper - micros) / micros).isLessThanOrEqualTo(1.0 / 16);
+            }
+        }
+    }
+
+    @Test
+    void shouldReportBucketUpperBoundsAtEachRank() {
+        for (long micros = 1; micros <= 100; micros++) {
+            histogram.recordNanos(micros * MICROS);
+        }
+
+        long[] values = histogram.percentiles(0.0, 0.5, 0.99, 1.0);
+
+        assertThat(values[0]).isEqualTo(1L);
+        assertThat(values[1]).isEqualTo(51L);
+        assertThat(values[2]).isEqualTo(99L);
+        assertThat(values[3]).isEqualTo(103L);
+    }
+
+    @Test
+    void shouldSwitchBucketExactlyAtTheRankBoundary() {
+        histogram.recordNanos(10 * MICROS);
+        histogram.recordNanos(10 * MICROS);
+        histogram.recordNanos(10 * MICROS);
+        histogram.recordNanos(1000 * MICROS);
+
+        long[] values = histogram.percentiles(0.75, 0.76);
+
+        assertThat(values[0]).isEqualTo(10L);
+        assertThat(values[1]).isEqualTo(1023L);
+    }
+
+    @Test
+    void shouldClampOutOfRangeSamples() {
+        histogram.recordNanos(-5);
+        histogram.recordNanos(999);
+        histogram.recordNanos(Long.MAX_VALUE);
+
+        assertThat(histogram.percentiles(0.5, 1.0))
+                .containsExactly(0L, LatencyHistogram.MAX_MICROS);
+        assertThat(histogram.getCount()).isEqualTo(3);
+        assertThat(histogram.getSumMicros()).isEqualTo(LatencyHistogram.MAX_MICROS);
+    }
+}
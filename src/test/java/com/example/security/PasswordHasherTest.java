@@ -0,0 +1,125 @@
+package com.example.security;
+
+import com.example.exceptions.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("PasswordHasher Tests")
+class PasswordHasherTest {
+    private static final int MIN_ITERATIONS = 1_000;
+
+    private PasswordHasher hasher;
+
+    @BeforeEach
+    void setUp() {
+        hasher = new PasswordHasher(MIN_ITERATIONS, 1, 2000, 1, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    void shouldVerifyAPasswordAgainstItsHash() {
+        String stored = hasher.hash("s3cret");
+
+        assertThat(stored).startsWith("pbkdf2$" + hasher.getIterations() + "$");
+        assertThat(hasher.isHashed(stored)).isTrue();
+        assertThat(hasher.verify("s3cret", stored)).isTrue();
+        assertThat(hasher.verify("S3cret", stored)).isFalse();
+        assertThat(hasher.needsRehash(stored)).isFalse();
+    }
+
+    @Test
+    void shouldSaltEveryHash() {
+        assertThat(hasher.hash("s3cret")).isNotEqualTo(hasher.hash("s3cret"));
+    }
+
+    @Test
+    void shouldHashOnThePoolWhenAsked() throws Exception {
+        String stored = hasher.hashAsync("s3cret").get(5, TimeUnit.SECONDS);
+
+        assertThat(hasher.verify("s3cret", stored)).isTrue();
+    }
+
+    @Test
+    void shouldCompareLegacyPlaintextAndAskForARehash() {
+        assertThat(hasher.isHashed("s3cret")).isFalse();
+        assertThat(hasher.verify("s3cret", "s3cret")).isTrue();
+        assertThat(hasher.verify("other", "s3cret")).isFalse();
+        assertThat(hasher.needsRehash("s3cret")).isTrue();
+    }
+
+    @Test
+    void shouldRejectAMissingStoredValue() {
+        assertThat(hasher.verify("s3cret", null)).isFalse();
+        assertThat(hasher.needsRehash(null)).isTrue();
+    }
+
+    @Test
+    void shouldAskForARehashBelowTheIterationFloor() {
+        PasswordHasher stricter = new PasswordHasher(hasher.getIterations() + 1, 1, 2000, 1, 4);
+        try {
+            String weak = hasher.hash("s3cret");
+
+            // the stored count is used to verify, the floor only decides the upgrade
+            assertThat(stricter.verify("s3cret", weak)).isTrue();
+            assertThat(stricter.needsRehash(weak)).isTrue();
+            assertThat(stricter.needsRehash(stricter.hash("s3cret"))).isFalse();
+        } finally {
+            stricter.shutdown();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "pbkdf2$",
+            "pbkdf2$1000$c2FsdA==",
+            "pbkdf2$lots$c2FsdHNhbHRzYWx0c2FsdA==$aGFzaA==",
+            "pbkdf2$0$c2FsdHNhbHRzYWx0c2FsdA==$aGFzaA==",
+            "pbkdf2$1000$not base64!$aGFzaA==",
+            "pbkdf2$1000$$aGFzaA==",
+            "pbkdf2$1000$c2FsdHNhbHRzYWx0c2FsdA==$aGFzaA==$extra"
+    })
+    void shouldNeverMatchAMalformedHash(String stored) {
+        assertThat(hasher.verify("s3cret", stored)).isFalse();
+        assertThat(hasher.verify(stored, stored)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"pbkdf2$", "pbkdf2$1000$c2FsdA==", "pbkdf2$lots$c2FsdA==$aGFzaA=="})
+    void shouldAskForARehashOfAnUnparsableHash(String stored) {
+        assertThat(hasher.needsRehash(stored)).isTrue();
+    }
+
+    @Test
+    void shouldFailFastWhenTheQueueIsFull() {
+        // one thread and one queue slot, each hash running for seconds
+        PasswordHasher slow = new PasswordHasher(10_000_000, 1, 2000, 1, 1);
+        try {
+            slow.hashAsync("first");
+            slow.hashAsync("queued");
+
+            assertThatThrownBy(() -> slow.hashAsync("rejected"))
+                    .isInstanceOf(ServiceBusyException.class)
+                    .hasMessageContaining("queue is full");
+            assertThatThrownBy(() -> slow.verify("rejected", "rejected"))
+                    .isInstanceOf(ServiceBusyException.class)
+                    .hasMessageContaining("queue is full");
+            assertThat(slow.getRejections()).isEqualTo(2);
+            assertThat(slow.getQueueDepth()).isEqualTo(slow.getQueueCapacity());
+        } finally {
+            slow.shutdown();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.security;
+
+import com.example.model.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RouteTable Tests")
+class RouteTableTest {
+    private RouteTable routeTable;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put("/", RouteTable.PUBLIC);
+        rules.put("/login", RouteTable.PUBLIC);
+        rules.put("/user/*", RouteTable.AUTHENTICATED);
+        rules.put("/admin/*", "ADMIN");
+        rules.put("/admin/reports/*", "AUDITOR");
+        rules.put("/admin/reports/public", RouteTable.PUBLIC);
+        rules.put("/admin/reports/public/*", "ADMIN");
+        routeTable = new RouteTable(rules);
+    }
+
+    @Test
+    void shouldPreferTheLongestMatchingPrefix() {
+        assertThat(routeTable.match("/admin/users").getPattern()).isEqualTo("/admin/*");
+        assertThat(routeTable.match("/admin/reports/daily").getPattern()).isEqualTo("/admin/reports/*");
+        assertThat(routeTable.match("/admin/reports/daily/2024").getPattern()).isEqualTo("/admin/reports/*");
+    }
+
+    @Test
+    void shouldMatchTheBarePrefixPath() {
+        assertThat(routeTable.match("/admin").getPattern()).isEqualTo("/admin/*");
+        assertThat(routeTable.match("/admin/").getPattern()).isEqualTo("/admin/*");
+        assertThat(routeTable.match("/admin/reports").getPattern()).isEqualTo("/admin/reports/*");
+    }
+
+    @Test
+    void shouldPreferAnExactRuleOverAPrefixOnTheSamePath() {
+        assertThat(routeTable.match("/admin/reports/public").getPattern()).isEqualTo("/admin/reports/public");
+        assertThat(routeTable.match("/admin/reports/public/q1").getPattern()).isEqualTo("/admin/reports/public/*");
+    }
+
+    @Test
+    void shouldMatchWholeSegmentsOnly() {
+        assertThat(routeTable.match("/administrator").getPattern()).isEqualTo("(unmatched)");
+        assertThat(routeTable.match("/users/1").getPattern()).isEqualTo("(unmatched)");
+        assertThat(routeTable.match("/admin/reportsx").getPattern()).isEqualTo("/admin/*");
+    }
+
+    @Test
+    void shouldNotExtendExactRulesToDeeperPaths() {
+        assertThat(routeTable.match("/login/extra").isPublic()).isTrue();
+        assertThat(routeTable.match("/login/extra").getPattern()).isEqualTo("(unmatched)");
+        assertThat(routeTable.match("/user/home/settings").getPattern()).isEqualTo("/user/*");
+    }
+
+    @Test
+    void shouldMatchTheRootExactly() {
+        assertThat(routeTable.match("/").getPattern()).isEqualTo("/");
+    }
+
+    @Test
+    void shouldPermitByRequirement() {
+        UserPrincipal admin = new UserPrincipal(1L, "admin", "Adam", "Sandler", 1L, "ADMIN");
+        UserPrincipal user = new UserPrincipal(2L, "user", "Regular", "User", 2L, "USER");
+
+        assertThat(routeTable.match("/login").permits(null)).isTrue();
+        assertThat(routeTable.match("/user/home").permits(null)).isFalse();
+        assertThat(routeTable.match("/user/home").permits(user)).isTrue();
+        assertThat(routeTable.match("/admin/users").permits(user)).isFalse();
+        assertThat(routeTable.match("/admin/users").permits(admin)).isTrue();
+        assertThat(routeTable.match("/admin/reports/daily").permits(admin)).isFalse();
+    }
+
+    @Test
+    void shouldCountDecisionsPerRoute() {
+        RouteTable.Route route = routeTable.match("/user/home");
+
+        route.permits(null);
+        route.permits(null);
+        route.permits(new UserPrincipal(2L, "user", "Regular", "User", 2L, "USER"));
+
+        assertThat(route.getDenied()).isEqualTo(2);
+        assertThat(route.getAllowed()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectRelativePatterns() {
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put("admin/*", "ADMIN");
+
+        assertThatThrownBy(() -> new RouteTable(rules))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("admin/*");
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TokenBucketLimiter Tests")
+class TokenBucketLimiterTest {
+    // one token per millisecond, so a short sleep refills a bucket completely
+    private static final int FAST_REFILL = 60_000;
+    // one token every 100 ms
+    private static final int MEDIUM_REFILL = 600;
+    // one token per minute, so nothing refills while a test runs
+    private static final int SLOW_REFILL = 1;
+
+    @Test
+    void shouldRejectOnceCapacityIsSpent() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, SLOW_REFILL, 100, 4);
+
+        assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isFalse();
+    }
+
+    @Test
+    void shouldKeepSeparateBucketsPerKey() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, SLOW_REFILL, 100, 4);
+
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isFalse();
+        assertThat(limiter.tryAcquire("bob")).isTrue();
+    }
+
+    @Test
+    void shouldRefillOverTime() throws InterruptedException {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, FAST_REFILL, 100, 4);
+        limiter.tryAcquire("alice");
+        limiter.tryAcquire("alice");
+
+        Thread.sleep(20);
+
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+    }
+
+    @Test
+    void shouldNotRefillPastCapacity() throws InterruptedException {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, MEDIUM_REFILL, 100, 4);
+        limiter.tryAcquire("alice");
+
+        // long enough for five tokens, but the bucket holds two
+        Thread.sleep(500);
+
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isFalse();
+    }
+
+    @Test
+    void shouldEvictOnlyBucketsThatRefilledToCapacity() throws InterruptedException {
+        TokenBucketLimiter slow = new TokenBucketLimiter(1, SLOW_REFILL, 100, 4);
+        slow.tryAcquire("alice");
+        assertThat(slow.evictIdle()).isZero();
+        assertThat(slow.size()).isEqualTo(1);
+
+        TokenBucketLimiter fast = new TokenBucketLimiter(1, FAST_REFILL, 100, 4);
+        fast.tryAcquire("alice");
+        fast.tryAcquire("bob");
+        Thread.sleep(20);
+
+        assertThat(fast.evictIdle()).isEqualTo(2);
+        assertThat(fast.size()).isZero();
+    }
+
+    @Test
+    void shouldShareOverflowBucketWhenFullOfBusyKeys() {
+        // two stripes of one key each; alice, carol and erin all hash to the same stripe
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, SLOW_REFILL, 2, 2);
+
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("carol")).isTrue();
+        assertThat(limiter.tryAcquire("erin")).isFalse();
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldMakeRoomByEvictingIdleBuckets() throws InterruptedException {
+        // alice and carol share a stripe that holds one key
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, MEDIUM_REFILL, 2, 2);
+        limiter.tryAcquire("alice");
+        Thread.sleep(150);
+
+        assertThat(limiter.tryAcquire("carol")).isTrue();
+        assertThat(limiter.size()).isEqualTo(1);
+        // alice was evicted to make room; carol has just spent its token, so it stays
+        assertThat(limiter.evictIdle()).isZero();
+    }
+
+    @Test
+    void shouldRejectInvalidSettings() {
+        assertThatThrownBy(() -> new TokenBucketLimiter(0, 10, 100, 4))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucketLimiter(1024, 10, 100, 4))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucketLimiter(5, 0, 100, 4))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
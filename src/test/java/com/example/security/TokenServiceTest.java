@@ -0,0 +1,138 @@
+package com.example.security;
+
+import com.example.model.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TokenService Tests")
+class TokenServiceTest {
+    private static final String OLD_KEY = "k1:" + secret('a');
+    private static final String NEW_KEY = "k2:" + secret('b');
+    private static final long TTL = TimeUnit.MINUTES.toMillis(60);
+
+    private TokenRevocationList revocations;
+    private TokenService tokenService;
+    private UserPrincipal john;
+
+    @BeforeEach
+    void setUp() {
+        revocations = new TokenRevocationList();
+        tokenService = new TokenService(OLD_KEY, "k1", TTL, revocations);
+        john = new UserPrincipal(7L, "johndoe", "John", "Doe", 2L, "USER");
+    }
+
+    @Test
+    void shouldRoundTripThePrincipal() {
+        UserPrincipal verified = tokenService.verify(tokenService.issue(john));
+
+        assertThat(verified).isEqualTo(john);
+    }
+
+    @Test
+    void shouldKeepMissingRoleAndNames() {
+        UserPrincipal bare = new UserPrincipal(8L, "bare", null, null, null, null);
+
+        UserPrincipal verified = tokenService.verify(tokenService.issue(bare));
+
+        assertThat(verified.getRoleId()).isNull();
+        assertThat(verified.getRoleName()).isNull();
+        assertThat(verified.getDisplayName()).isEqualTo("bare");
+    }
+
+    @Test
+    void shouldRejectTamperedPayload() {
+        String token = tokenService.issue(john);
+        String[] parts = token.split("\\.");
+        byte[] payload = Base64.getUrlDecoder().decode(parts[1]);
+        // the last byte belongs to the last name; any change must break the signature
+        payload[payload.length - 1] ^= 1;
+        String tampered = parts[0] + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(payload)
+                + "." + parts[2];
+
+        assertThat(tokenService.verify(tampered)).isNull();
+    }
+
+    @Test
+    void shouldRejectTamperedSignature() {
+        String token = tokenService.issue(john);
+        // the final character carries unused padding bits, so flip the first one instead
+        int start = token.lastIndexOf('.') + 1;
+        char first = token.charAt(start);
+        String tampered = token.substring(0, start) + (first == 'A' ? 'B' : 'A') + token.substring(start + 1);
+
+        assertThat(tokenService.verify(tampered)).isNull();
+    }
+
+    @Test
+    void shouldRejectTokenSignedWithAnotherKey() {
+        TokenService otherNode = new TokenService(NEW_KEY, "k2", TTL, revocations);
+
+        assertThat(tokenService.verify(otherNode.issue(john))).isNull();
+    }
+
+    @Test
+    void shouldRejectMalformedTokens() {
+        assertThat(tokenService.verify(null)).isNull();
+        assertThat(tokenService.verify("")).isNull();
+        assertThat(tokenService.verify("k1")).isNull();
+        assertThat(tokenService.verify("k1.payload")).isNull();
+        assertThat(tokenService.verify("k1.!!!.???")).isNull();
+        assertThat(tokenService.verify("unknown.payload.signature")).isNull();
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        TokenService expiring = new TokenService(OLD_KEY, "k1", 0, revocations);
+
+        assertThat(expiring.verify(expiring.issue(john))).isNull();
+    }
+
+    @Test
+    void shouldRejectRevokedToken() {
+        String revoked = tokenService.issue(john);
+        String other = tokenService.issue(john);
+
+        tokenService.revoke(revoked);
+
+        assertThat(tokenService.verify(revoked)).isNull();
+        assertThat(tokenService.verify(other)).isEqualTo(john);
+    }
+
+    @Test
+    void shouldRejectTokensIssuedBeforeUserWasRevoked() throws InterruptedException {
+        String before = tokenService.issue(john);
+        revocations.revokeUser(john.getId());
+        Thread.sleep(5);
+        String after = tokenService.issue(john);
+
+        assertThat(tokenService.verify(before)).isNull();
+        assertThat(tokenService.verify(after)).isEqualTo(john);
+    }
+
+    @Test
+    void shouldAcceptTokensOfRetiredActiveKeyDuringRotation() {
+        String oldToken = tokenService.issue(john);
+        TokenService rotated = new TokenService(OLD_KEY + "," + NEW_KEY, "k2", TTL, revocations);
+
+        assertThat(rotated.verify(oldToken)).isEqualTo(john);
+        assertThat(rotated.issue(john)).startsWith("k2.");
+    }
+
+    @Test
+    void shouldRejectActiveKeyThatIsNotConfigured() {
+        assertThatThrownBy(() -> new TokenService(OLD_KEY, "k2", TTL, revocations))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("auth.token.activeKeyId");
+    }
+
+    private static String secret(char fill) {
+        return Base64.getEncoder().encodeToString(String.valueOf(fill).repeat(32).getBytes());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.service;
+
+import com.example.dao.BaseDaoTest;
+import com.example.dao.DaoFactory;
+import com.example.model.User;
+import com.example.security.PasswordHasher;
+import com.github.database.rider.core.api.dataset.DataSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The dataset stores plaintext passwords, the legacy format a successful login
+ * replaces with a hash on the hasher pool.
+ */
+@DisplayName("AuthenticationService Tests")
+@DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+class AuthenticationServiceTest extends BaseDaoTest {
+    private static final long UPGRADE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final PasswordHasher passwordHasher = PasswordHasher.getInstance();
+    private AuthenticationService authenticationService;
+
+    @BeforeEach
+    void setUp() {
+        authenticationService = new AuthenticationService();
+    }
+
+    @Test
+    void shouldUpgradeALegacyPasswordInTheBackground() throws InterruptedException {
+        User user = authenticationService.authenticate("johndoe", "hashedpassword123");
+
+        assertThat(user).isNotNull();
+        assertThat(user.getLogin()).isEqualTo("johndoe");
+
+        String stored = awaitHashedPassword("johndoe");
+        assertThat(passwordHasher.verify("hashedpassword123", stored)).isTrue();
+        assertThat(passwordHasher.needsRehash(stored)).isFalse();
+        assertThat(authenticationService.authenticate("johndoe", "hashedpassword123")).isNotNull();
+    }
+
+    @Test
+    void shouldNotUpgradeAfterAFailedLogin() {
+        assertThat(authenticationService.authenticate("johndoe", "wrong")).isNull();
+
+        assertThat(storedPassword("johndoe")).isEqualTo("hashedpassword123");
+    }
+
+    @Test
+    void shouldRejectUnknownAndBlankLogins() {
+        assertThat(authenticationService.authenticate("nobody", "hashedpassword123")).isNull();
+        assertThat(authenticationService.authenticate(" ", "hashedpassword123")).isNull();
+        assertThat(authenticationService.authenticate("johndoe", "")).isNull();
+    }
+
+    private String awaitHashedPassword(String login) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + UPGRADE_TIMEOUT_MILLIS;
+        String stored = storedPassword(login);
+        while (!passwordHasher.isHashed(stored) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            stored = storedPassword(login);
+        }
+        assertThat(passwordHasher.isHashed(stored)).as("password of %s upgraded", login).isTrue();
+        return stored;
+    }
+
+    private static String storedPassword(String login) {
+        return DaoFactory.getUserDao().findByLogin(login).getPassword();
+    }
+}
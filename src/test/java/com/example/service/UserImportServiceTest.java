@@ -0,0 +1,183 @@
+package com.example.service;
+
+import com.example.dao.BaseDaoTest;
+import com.example.dao.DaoFactory;
+import com.example.exceptions.ValidationException;
+import com.example.model.ImportReport;
+import com.example.model.ImportReport.RowError;
+import com.example.model.User;
+import com.example.security.PasswordHasher;
+import com.github.database.rider.core.api.dataset.DataSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The test {@code database.properties} sets {@code db.batch.size=2}, so every
+ * file of more than two rows is imported in several chunks, and
+ * {@code import.pbkdf2.iterations=1000}.
+ */
+@DisplayName("UserImportService Tests")
+@DataSet("dataset/roles.yml")
+class UserImportServiceTest extends BaseDaoTest {
+    private static final String HEADER = "login,password,email,firstName,lastName,birthday,role";
+
+    private UserImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new UserImportService();
+    }
+
+    @Test
+    void shouldImportEveryValidRow() throws IOException {
+        ImportReport report = importCsv(HEADER,
+                "alice,secret1,alice@example.com,Alice,Walker,1990-05-15,admin",
+                "bob,secret2,bob@example.com,Bob,Stone,,USER");
+
+        assertThat(report.getTotalRows()).isEqualTo(2);
+        assertThat(report.getImportedRows()).isEqualTo(2);
+        assertThat(report.getRejectedRows()).isZero();
+
+        User alice = DaoFactory.getUserDao().findByLogin("alice");
+        assertThat(alice.getEmail()).isEqualTo("alice@example.com");
+        assertThat(alice.getBirthday()).isEqualTo(LocalDate.of(1990, 5, 15));
+        assertThat(alice.getRole().getName()).isEqualTo("ADMIN");
+        assertThat(DaoFactory.getUserDao().findByLogin("bob").getBirthday()).isNull();
+    }
+
+    @Test
+    void shouldHashWithTheImportCostAndFlagItForARehash() throws IOException {
+        importCsv(HEADER, "alice,secret1,alice@example.com,Alice,Walker,,USER");
+
+        PasswordHasher hasher = PasswordHasher.getInstance();
+        String stored = DaoFactory.getUserDao().findByLogin("alice").getPassword();
+        assertThat(stored).startsWith("pbkdf2$1000$");
+        assertThat(hasher.verify("secret1", stored)).isTrue();
+        assertThat(hasher.needsRehash(stored)).isTrue();
+    }
+
+    @Test
+    void shouldAcceptHeadersInAnyOrderAndCase() throws IOException {
+        ImportReport report = importCsv("\uFEFFROLE,Email,LOGIN,lastname,FirstName,Password",
+                "user,alice@example.com,alice,Walker,Alice,secret1");
+
+        assertThat(report.getImportedRows()).isEqualTo(1);
+        assertThat(DaoFactory.getUserDao().findByLogin("alice").getFirstName()).isEqualTo("Alice");
+    }
+
+    @Test
+    void shouldRejectAHeaderWithoutTheRequiredColumns() {
+        assertThatThrownBy(() -> importCsv("login,password,firstName,role", "alice,secret1,Alice,USER"))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("CSV header is missing columns: email, lastname");
+        assertThat(DaoFactory.getUserDao().findAll()).isEmpty();
+    }
+
+    @Test
+    void shouldRejectAnEmptyFile() {
+        assertThatThrownBy(this::importCsv)
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("The file is empty");
+    }
+
+    @Test
+    void shouldRejectDuplicatesWithinTheFileAcrossChunks() throws IOException {
+        ImportReport report = importCsv(HEADER,
+                "alice,secret1,alice@example.com,Alice,Walker,,USER",
+                "bob,secret2,bob@example.com,Bob,Stone,,USER",
+                // next chunk: taken by the first one
+                "alice,secret3,other@example.com,Alice,Other,,USER",
+                "carol,secret4,bob@example.com,Carol,Stone,,USER",
+                // same chunk as each other
+                "dave,secret5,dave@example.com,Dave,Hill,,USER",
+                "dave,secret6,dave@example.com,Dave,Hill,,USER");
+
+        assertThat(report.getImportedRows()).isEqualTo(3);
+        assertThat(report.getErrors()).extracting(RowError::getLine).containsExactly(4, 5, 7);
+        assertThat(report.getErrors()).extracting(RowError::getMessages).containsExactly(
+                List.of("Login already exists"),
+                List.of("Email already exists"),
+                List.of("Login already exists", "Email already exists"));
+        assertThat(DaoFactory.getUserDao().findAll()).extracting(User::getLogin)
+                .containsExactlyInAnyOrder("alice", "bob", "dave");
+    }
+
+    @Test
+    void shouldRejectLoginsAndEmailsAlreadyInTheDatabase() throws IOException {
+        importCsv(HEADER, "alice,secret1,alice@example.com,Alice,Walker,,USER");
+
+        ImportReport report = importCsv(HEADER,
+                "alice,secret2,new@example.com,Alice,Again,,USER",
+                "bob,secret3,bob@example.com,Bob,Stone,,USER",
+                "carol,secret4,alice@example.com,Carol,Stone,,USER");
+
+        assertThat(report.getImportedRows()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(RowError::getLogin).containsExactly("alice", "carol");
+        assertThat(report.getErrors().get(0).getMessages()).containsExactly("Login already exists");
+        assertThat(report.getErrors().get(1).getMessages()).containsExactly("Email already exists");
+    }
+
+    @Test
+    void shouldRejectABadBirthdayOrRole() throws IOException {
+        ImportReport report = importCsv(HEADER,
+                "alice,secret1,alice@example.com,Alice,Walker,15/05/1990,USER",
+                "bob,secret2,bob@example.com,Bob,Stone,,GUEST",
+                "carol,secret3,carol@example.com,Carol,Stone,,",
+                "dave,secret4,dave@example.com,Dave,Hill,2999-01-01,USER");
+
+        assertThat(report.getImportedRows()).isZero();
+        assertThat(report.getErrors()).extracting(RowError::getMessages).containsExactly(
+                List.of("Invalid birthday: 15/05/1990"),
+                List.of("Unknown role: GUEST"),
+                List.of("Role is required"),
+                List.of("Birthday cannot be in the future"));
+    }
+
+    @Test
+    void shouldKeepLineNumbersAndCountsAcrossChunksAndBlankLines() throws IOException {
+        ImportReport report = importCsv(HEADER,
+                "user1,secret,user1@example.com,User,One,,USER",
+                "",
+                "user2,secret,user2@example.com,User,Two,,USER",
+                "user3,secret,user3@example.com,User,Three,,USER",
+                "   ",
+                "user4,secret,bad-email,User,Four,,USER",
+                "user5,secret,user5@example.com,User,Five,,USER");
+
+        assertThat(report.getTotalRows()).isEqualTo(5);
+        assertThat(report.getImportedRows()).isEqualTo(4);
+        assertThat(report.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(7);
+            assertThat(error.getLogin()).isEqualTo("user4");
+        });
+        assertThat(DaoFactory.getUserDao().findAll()).hasSize(4);
+    }
+
+    @Test
+    void shouldKeepOnlyTheConfiguredNumberOfErrors() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 1005; i++) {
+            csv.append("\nuser").append(i).append(",secret,bad-email,User,Number,,USER");
+        }
+
+        ImportReport report = importService.importUsers(new BufferedReader(new StringReader(csv.toString())));
+
+        assertThat(report.getRejectedRows()).isEqualTo(1005);
+        assertThat(report.getErrors()).hasSize(1000);
+        assertThat(report.isErrorsTruncated()).isTrue();
+    }
+
+    private ImportReport importCsv(String... lines) throws IOException {
+        return importService.importUsers(new BufferedReader(new StringReader(String.join("\n", lines))));
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.service;
+
+import com.example.dao.BaseDaoTest;
+import com.example.dao.DaoFactory;
+import com.example.exceptions.DuplicateUserException;
+import com.example.model.Page;
+import com.example.model.Role;
+import com.example.model.User;
+import com.example.model.UserSummary;
+import com.github.database.rider.core.api.dataset.DataSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("UserService Tests")
+class UserServiceTest extends BaseDaoTest {
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserService();
+    }
+
+    @Test
+    @DataSet("dataset/roles.yml")
+    void shouldReturnFirstPageWithOnlyANextCursor() {
+        createUsers(5);
+
+        Page<UserSummary> page = userService.getUserPage(null, null, 2);
+
+        assertThat(page.getItems()).extracting(UserSummary::getLogin).containsExactly("user1", "user2");
+        assertThat(page.isHasPrev()).isFalse();
+        assertThat(page.getNextCursor()).isEqualTo("user2");
+    }
+
+    @Test
+    @DataSet("dataset/roles.yml")
+    void shouldSeekForwardFromTheNextCursor() {
+        createUsers(5);
+
+        Page<UserSummary> page = userService.getUserPage("user2", null, 2);
+
+        assertThat(page.getItems()).extracting(UserSummary::getLogin).containsExactly("user3", "user4");
+        assertThat(page.getPrevCursor()).isEqualTo("user3");
+        assertThat(page.getNextCursor()).isEqualTo("user4");
+    }
+
+    @Test
+    @DataSet("dataset/roles.yml")
+    void shouldReturnLastPageWithoutANextCursor() {
+        createUsers(5);
+
+        Page<UserSummary> page = userService.getUserPage("user4", null, 2);
+
+        assertThat(page.getItems()).extracting(UserSummary::getLogin).containsExactly("user5");
+        assertThat(page.getPrevCursor()).isEqualTo("user5");
+        assertThat(page.isHasNext()).isFalse();
+    }
+
+    @Test
+    @DataSet("dataset/roles.yml")
+    void shouldNotOfferANextPageWhenTheLastPageIsExactlyFull() {
+        createUsers(4);
+
+        Page<UserSummary> page = userService.getUserPage("user2", null, 2);
+
+        assertThat(page.getItems()).extracting(UserSummary::getLogin).containsExactly("user3", "user4");
+        assertThat(page.isHasNext()).isFalse();
+    }
+
+    @Test
+    @DataSet("dataset/roles.yml")
+    void shouldPageBackwardsInAscendingOrder() {
+        createUsers(5);
+
+        Page<UserSummary> page = userService.getUserPage(null, "user4", 2);
+
+        assertThat(page.getItems()).extracting(UserSummary::getLogin).containsExactly("user2", "user3");
+        assertThat(page.getPrevCursor()).isEqualTo("user2");
+        assertThat(page.getNextCursor()).isEqualTo("user3");
+    }
+
+    @Test
+    @DataSet("dataset/roles.yml")
+    void shouldStopPagingBackwardsAtTheFirstUser() {
+        createUsers(5);
+
+        Page<UserSummary> page = userService.getUserPage(null, "user3", 2);
+
+        assertThat(page.getItems()).extracting(UserSummary::getLogin).containsExactly("user1", "user2");
+        assertThat(page.isHasPrev()).isFalse();
+        assertThat(page.getNextCursor()).isEqualTo("user2");
+    }
+
+    @Test
+    @DataSet("dataset/roles.yml")
+    void shouldWalkBackToTheSamePageItWalkedForwardFrom() {
+        createUsers(5);
+
+        Page<UserSummary> first = userService.getUserPage(null, null, 2);
+        Page<UserSummary> second = userService.getUserPage(first.getNextCursor(), null, 2);
+        Page<UserSummary> back = userService.getUserPage(null, second.getPrevCursor(), 2);
+
+        assertThat(back.getItems()).extracting(UserSummary::getLogin)
+                .containsExactly("user1", "user2");
+        assertThat(back.isHasPrev()).isEqualTo(first.isHasPrev());
+        assertThat(back.getNextCursor()).isEqualTo(first.getNextCursor());
+    }
+
+    @Test
+    void shouldReturnAnEmptyPageWithoutCursors() {
+        Page<UserSummary> forward = userService.getUserPage(null, null, 2);
+        Page<UserSummary> backward = userService.getUserPage(null, "user1", 2);
+
+        assertThat(forward.getItems()).isEmpty();
+        assertThat(forward.isHasPrev()).isFalse();
+        assertThat(forward.isHasNext()).isFalse();
+        assertThat(backward.getItems()).isEmpty();
+        assertThat(backward.isHasPrev()).isFalse();
+        assertThat(backward.isHasNext()).isFalse();
+    }
+
+    @Test
+    @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+    void shouldRejectCreatingAUserWithATakenLogin() {
+        User user = newUser("johndoe", "other@example.com");
+
+        assertThatThrownBy(() -> userService.createUser(user))
+                .isInstanceOf(DuplicateUserException.class)
+                .hasMessage("Login already exists")
+                .satisfies(e -> assertThat(((DuplicateUserException) e).getErrors())
+                        .containsExactly("Login already exists"));
+    }
+
+    @Test
+    @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+    void shouldRejectCreatingAUserWithATakenEmail() {
+        User user = newUser("newuser", "john@example.com");
+
+        assertThatThrownBy(() -> userService.createUser(user))
+                .isInstanceOf(DuplicateUserException.class)
+                .satisfies(e -> assertThat(((DuplicateUserException) e).getErrors())
+                        .containsExactly("Email already exists"));
+    }
+
+    @Test
+    @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+    void shouldReportBothFieldsWhenLoginAndEmailAreTaken() {
+        // the login and the email belong to two different users
+        User user = newUser("johndoe", "jane@example.com");
+
+        assertThatThrownBy(() -> userService.createUser(user))
+                .isInstanceOf(DuplicateUserException.class)
+                .hasMessage("Login already exists; Email already exists")
+                .satisfies(e -> assertThat(((DuplicateUserException) e).getErrors())
+                        .containsExactly("Login already exists", "Email already exists"));
+        assertThat(userService.getAllUsers()).hasSize(2);
+    }
+
+    @Test
+    @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+    void shouldRejectUpdatingAUserOntoAnotherUsersLogin() {
+        User jane = userService.getUserByLogin("janesmith");
+        jane.setLogin("johndoe");
+
+        assertThatThrownBy(() -> userService.updateUser(jane, false))
+                .isInstanceOf(DuplicateUserException.class)
+                .satisfies(e -> assertThat(((DuplicateUserException) e).getErrors())
+                        .containsExactly("Login already exists"));
+        assertThat(userService.getUserById(2L).getLogin()).isEqualTo("janesmith");
+    }
+
+    @Test
+    @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+    void shouldRejectUpdatingAUserOntoAnotherUsersEmail() {
+        User jane = userService.getUserByLogin("janesmith");
+        jane.setEmail("john@example.com");
+
+        assertThatThrownBy(() -> userService.updateUser(jane, false))
+                .isInstanceOf(DuplicateUserException.class)
+                .satisfies(e -> assertThat(((DuplicateUserException) e).getErrors())
+                        .containsExactly("Email already exists"));
+    }
+
+    @Test
+    @DataSet(value = {"dataset/roles.yml", "dataset/users.yml"})
+    void shouldUpdateAUserKeepingItsOwnLoginAndEmail() {
+        User john = userService.getUserByLogin("johndoe");
+        john.setFirstName("Johnny");
+
+        userService.updateUser(john, false);
+
+        User updated = userService.getUserById(john.getId());
+        assertThat(updated.getLogin()).isEqualTo("johndoe");
+        assertThat(updated.getEmail()).isEqualTo("john@example.com");
+        assertThat(updated.getFirstName()).isEqualTo("Johnny");
+    }
+
+    private void createUsers(int count) {
+        Role userRole = DaoFactory.getRoleDao().findByName("USER");
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            users.add(new User("user" + i, "password", "user" + i + "@example.com",
+                    "User", "Number" + i, null, userRole));
+        }
+        DaoFactory.getUserDao().createAll(users);
+    }
+
+    private static User newUser(String login, String email) {
+        return new User(login, "password", email, "New", "User", LocalDate.of(1995, 1, 1),
+                DaoFactory.getRoleDao().findByName("USER"));
+    }
+}
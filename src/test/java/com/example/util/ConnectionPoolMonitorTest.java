@@ -0,0 +1,76 @@
+package com.example.util;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ConnectionPoolMonitor Tests")
+class ConnectionPoolMonitorTest {
+    private ConnectionPoolMonitor monitor;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    @BeforeEach
+    void setUp() {
+        monitor = ConnectionPoolMonitor.getInstance();
+        hits = monitor.getStatementHits();
+        misses = monitor.getStatementMisses();
+        evictions = monitor.getStatementEvictions();
+    }
+
+    @Test
+    void shouldCountStatementPoolHitsAndMisses() throws SQLException {
+        try (Connection connection = DatabaseManager.getInstance().getConnection()) {
+            query(connection, "SELECT 1 AS pooled_hit");
+            query(connection, "SELECT 1 AS pooled_hit");
+            query(connection, "SELECT 1 AS pooled_hit");
+            connection.commit();
+        }
+
+        assertThat(monitor.getStatementMisses() - misses).isEqualTo(1);
+        assertThat(monitor.getStatementHits() - hits).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCountStatementsEvictedToStayWithinTheLimit() throws SQLException {
+        int limit = DatabaseManager.getIntProperty("db.statementCache.size", 32);
+        try (Connection connection = DatabaseManager.getInstance().getConnection()) {
+            for (int i = 0; i <= limit; i++) {
+                query(connection, "SELECT " + i + " AS pooled_eviction");
+            }
+            connection.commit();
+        }
+
+        assertThat(monitor.getStatementEvictions() - evictions).isPositive();
+    }
+
+    @Test
+    void shouldKeepCountsOfClosedConnections() throws SQLException {
+        BasicDataSource dataSource = DatabaseManager.getDataSource();
+        Connection connection = DatabaseManager.getInstance().getConnection();
+        query(connection, "SELECT 1 AS pooled_closed");
+        query(connection, "SELECT 1 AS pooled_closed");
+        connection.commit();
+
+        dataSource.invalidateConnection(connection);
+
+        assertThat(monitor.getStatementMisses() - misses).isEqualTo(1);
+        assertThat(monitor.getStatementHits() - hits).isEqualTo(1);
+    }
+
+    private static void query(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            assertThat(rs.next()).isTrue();
+        }
+    }
+}
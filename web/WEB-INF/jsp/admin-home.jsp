@@ -24,11 +24,71 @@
         </div>
     </c:if>
 
-    <div class="mb-3">
-        <a href="${pageContext.request.contextPath}/admin/users/add" class="add-user-link">Add new user</a>
+    <div class="mb-3 d-flex justify-content-between">
+        <div>
+            <a href="${pageContext.request.contextPath}/admin/users/add" class="add-user-link">Add new user</a>
+            <a href="${pageContext.request.contextPath}/admin/users/import" class="btn-link ms-3">Import from CSV</a>
+            <a href="${pageContext.request.contextPath}/admin/users/export?format=csv" class="btn-link ms-3">Export CSV</a>
+            <a href="${pageContext.request.contextPath}/admin/users/export?format=jsonl" class="btn-link ms-3">Export JSON Lines</a>
+        </div>
+        <c:choose>
+            <c:when test="${not empty userSource}">
+                <a href="${pageContext.request.contextPath}/admin/users" class="btn-link">Paged view</a>
+            </c:when>
+            <c:otherwise>
+                <a href="${pageContext.request.contextPath}/admin/users?view=all" class="btn-link">Show all</a>
+            </c:otherwise>
+        </c:choose>
     </div>
 
-    <u:userList users="${users}" contextPath="${pageContext.request.contextPath}" />
+    <c:if test="${not empty roleCounts}">
+        <p class="text-muted mb-2">
+            <c:forEach var="entry" items="${roleCounts}" varStatus="status">
+                <c:out value="${entry.key}"/>: ${entry.value}<c:if test="${not status.last}"> &middot; </c:if>
+            </c:forEach>
+        </p>
+    </c:if>
+
+    <form method="get" action="${pageContext.request.contextPath}/admin/users" class="d-flex mb-3" role="search">
+        <input type="search" name="q" class="form-control me-2" placeholder="Search by login, email or name"
+               value="<c:out value='${query}'/>">
+        <button type="submit" class="btn btn-outline-primary">Search</button>
+        <c:if test="${not empty query}">
+            <a href="${pageContext.request.contextPath}/admin/users" class="btn btn-link">Clear</a>
+        </c:if>
+    </form>
+
+    <c:choose>
+        <c:when test="${not empty userSource}">
+            <u:userList source="${userSource}" contextPath="${pageContext.request.contextPath}" />
+        </c:when>
+        <c:otherwise>
+            <u:userList users="${users}" contextPath="${pageContext.request.contextPath}" />
+        </c:otherwise>
+    </c:choose>
+
+    <c:if test="${page.hasPrev or page.hasNext}">
+        <nav class="d-flex justify-content-between mt-3">
+            <div>
+                <c:if test="${page.hasPrev}">
+                    <c:url var="prevUrl" value="/admin/users">
+                        <c:param name="before" value="${page.prevCursor}"/>
+                        <c:param name="size" value="${page.size}"/>
+                    </c:url>
+                    <a href="${prevUrl}" class="btn btn-outline-secondary btn-sm">&laquo; Previous</a>
+                </c:if>
+            </div>
+            <div>
+                <c:if test="${page.hasNext}">
+                    <c:url var="nextUrl" value="/admin/users">
+                        <c:param name="after" value="${page.nextCursor}"/>
+                        <c:param name="size" value="${page.size}"/>
+                    </c:url>
+                    <a href="${nextUrl}" class="btn btn-outline-secondary btn-sm">Next &raquo;</a>
+                </c:if>
+            </div>
+        </nav>
+    </c:if>
 </div>
 
 <script src="https://cdn.jsdelivr.net/npm/bootstrap@5.1.3/dist/js/bootstrap.bundle.min.js"></script>
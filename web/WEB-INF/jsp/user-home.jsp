@@ -9,7 +9,7 @@
 <body>
 <div class="container mt-5">
   <div class="text-center">
-    <h1>Hello, ${sessionScope.currentUser.firstName}!</h1>
+    <h1>Hello, ${currentUser.firstName}!</h1>
     <p class="mt-4">Click <a href="${pageContext.request.contextPath}/logout">here</a> to logout</p>
   </div>
 </div>
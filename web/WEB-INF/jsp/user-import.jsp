@@ -0,0 +1,74 @@
+<%@ page contentType="text/html;charset=UTF-8"%>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<!DOCTYPE html>
+<html>
+<head>
+    <title>Import users</title>
+    <link href="https://cdn.jsdelivr.net/npm/bootstrap@5.1.3/dist/css/bootstrap.min.css" rel="stylesheet">
+    <link href="/css/admin-style.css" rel="stylesheet">
+</head>
+<body>
+<%@include file="../include/admin-header.jsp" %>
+
+<div class="container">
+    <h2 class="mb-3">Import users</h2>
+
+    <c:if test="${not empty error}">
+        <div class="alert alert-danger" role="alert"><c:out value="${error}"/></div>
+    </c:if>
+
+    <form method="post" action="${pageContext.request.contextPath}/admin/users/import"
+          enctype="multipart/form-data" class="mb-4">
+        <div class="mb-3">
+            <label for="file" class="form-label">CSV file</label>
+            <input type="file" class="form-control" id="file" name="file" accept=".csv,text/csv" required>
+            <div class="form-text">
+                Header row: login, password, email, firstName, lastName, birthday (yyyy-mm-dd, optional), role (optional)
+            </div>
+        </div>
+        <div class="d-flex justify-content-end">
+            <a href="${pageContext.request.contextPath}/admin/users" class="btn btn-secondary me-2">Back</a>
+            <button type="submit" class="btn btn-primary">Import</button>
+        </div>
+    </form>
+
+    <c:if test="${not empty report}">
+        <div class="alert ${report.rejectedRows == 0 ? 'alert-success' : 'alert-warning'}" role="alert">
+            Imported ${report.importedRows} of ${report.totalRows} rows,
+            rejected ${report.rejectedRows},
+            in ${report.elapsedMillis} ms (${report.rowsPerSecond} rows/s)
+        </div>
+
+        <c:if test="${not empty report.errors}">
+            <table class="table table-bordered table-sm">
+                <thead>
+                <tr>
+                    <th>Line</th>
+                    <th>Login</th>
+                    <th>Errors</th>
+                </tr>
+                </thead>
+                <tbody>
+                <c:forEach var="rowError" items="${report.errors}">
+                    <tr>
+                        <td>${rowError.line}</td>
+                        <td><c:out value="${rowError.login}"/></td>
+                        <td>
+                            <c:forEach var="message" items="${rowError.messages}" varStatus="status">
+                                <c:out value="${message}"/><c:if test="${not status.last}">; </c:if>
+                            </c:forEach>
+                        </td>
+                    </tr>
+                </c:forEach>
+                </tbody>
+            </table>
+            <c:if test="${report.errorsTruncated}">
+                <p class="text-muted">Only the first ${report.errors.size()} rejected rows are listed.</p>
+            </c:if>
+        </c:if>
+    </c:if>
+</div>
+
+<script src="https://cdn.jsdelivr.net/npm/bootstrap@5.1.3/dist/js/bootstrap.bundle.min.js"></script>
+</body>
+</html>